@@ -0,0 +1,24 @@
+package kankan.wheel.bench;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all wheel benchmarks, arguments are passed to JMH as a benchmark name filter.
+ * Run it from Eclipse as a Java application after the JMH_LIB classpath variable
+ * is set to the directory with the JMH jars.
+ */
+public class BenchMain {
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : BenchMain.class.getPackage().getName() + ".*";
+		Options options = new OptionsBuilder()
+				.include(include)
+				.warmupIterations(3)
+				.measurementIterations(5)
+				.forks(1)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,103 @@
+package kankan.wheel.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import kankan.wheel.widget.core.RingPool;
+import kankan.wheel.widget.core.WheelGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Range recycling of a spin as WheelRecycle does it: items leaving the visible range
+ * are put to the pool, items entering it are taken from the pool or created.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecycleBenchmark {
+	private static final int ITEM_HEIGHT = 100;
+	/** Item put back to pool, the item identity does not matter */
+	private static final Object ITEM = new Object();
+	/** Scroll distance per frame */
+	private static final int FRAME_DELTA = 37;
+
+	@Param({ "8", "1024" })
+	public int itemCount;
+
+	@Param({ "3", "5", "9" })
+	public int visibleItems;
+
+	@Param({ "true", "false" })
+	public boolean cyclic;
+
+	@Param({ "10", "90", "1000" })
+	public int spinItems;
+
+	/** Pool capacity above visibleItems, 3 is the WheelRecycle default */
+	@Param({ "0", "3" })
+	public int overscan;
+
+	private final WheelGeometry geometry = new WheelGeometry();
+	private RingPool<Object> pool;
+
+	@Setup
+	public void setup() {
+		geometry.setup(itemCount, ITEM_HEIGHT, visibleItems * ITEM_HEIGHT, cyclic);
+		pool = new RingPool<Object>(visibleItems + overscan);
+	}
+
+	@Benchmark
+	public long spin(Blackhole blackhole) {
+		pool.clear();
+		pool.resetStatistics();
+
+		// shown range [first, first + count)
+		geometry.computeRange(0, 0);
+		int first = geometry.getRangeFirst();
+		int count = geometry.getRangeCount();
+
+		int currentItem = 0;
+		int offset = 0;
+		int left = spinItems * ITEM_HEIGHT;
+		while (left > 0) {
+			int delta = Math.min(FRAME_DELTA, left);
+			left -= delta;
+			// negative offsets move the wheel forward
+			geometry.scroll(currentItem, offset - delta);
+			currentItem = geometry.getItem();
+			offset = geometry.getOffset();
+
+			geometry.computeRange(currentItem, offset);
+			int newFirst = geometry.getRangeFirst();
+			int newCount = geometry.getRangeCount();
+
+			// recycle items not included to the new range
+			for (int i = first; i < first + count; i++) {
+				if (i < newFirst || i >= newFirst + newCount) {
+					pool.put(ITEM);
+				}
+			}
+			// add items of the new range
+			for (int i = newFirst; i < newFirst + newCount; i++) {
+				if (i < first || i >= first + count) {
+					Object item = pool.take();
+					if (item == null) {
+						item = new Object();
+					}
+					blackhole.consume(item);
+				}
+			}
+			first = newFirst;
+			count = newCount;
+		}
+		return pool.getMisses();
+	}
+}
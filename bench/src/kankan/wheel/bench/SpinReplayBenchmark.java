@@ -0,0 +1,82 @@
+package kankan.wheel.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import kankan.wheel.widget.core.HeadlessWheel;
+import kankan.wheel.widget.core.ManualFrameClock;
+import kankan.wheel.widget.core.ScrollPhysics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Whole spins replayed on a headless wheel with a 60 Hz virtual clock:
+ * every frame steps the scroll engine, applies the scroll and rebuilds the items range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpinReplayBenchmark {
+	private static final int ITEM_HEIGHT = 100;
+	/** Frames limit of one spin, far above any spin duration */
+	private static final int MAX_FRAMES = 100000;
+
+	@Param({ "8", "1024" })
+	public int itemCount;
+
+	@Param({ "5" })
+	public int visibleItems;
+
+	@Param({ "true", "false" })
+	public boolean cyclic;
+
+	@Param({ "2000", "7000" })
+	public int durationMs;
+
+	private ManualFrameClock clock;
+	private HeadlessWheel wheel;
+	private int target;
+
+	// Counts items passed to the sink, so the work is not optimized away
+	private long items;
+	private final HeadlessWheel.ItemSink sink = new HeadlessWheel.ItemSink() {
+		public void onItemAdded(int index, int adapterIndex, boolean first) {
+			items += adapterIndex;
+		}
+
+		public void onItemRemoved(int index) {
+			items--;
+		}
+
+		public void onItemChanged(int oldItem, int newItem, int itemsPassed) {
+			items += itemsPassed;
+		}
+
+		public void onFrame(HeadlessWheel wheel, long frameTimeNanos) {
+		}
+	};
+
+	@Setup
+	public void setup() {
+		clock = new ManualFrameClock();
+		wheel = new HeadlessWheel(clock, ScrollPhysics.computeDeceleration(480, ScrollPhysics.DEF_SCROLL_FRICTION));
+		wheel.setup(itemCount, ITEM_HEIGHT, visibleItems * ITEM_HEIGHT, cyclic);
+		wheel.setItemSink(sink);
+		clock.runUntilIdle(MAX_FRAMES);
+	}
+
+	@Benchmark
+	public long spin() {
+		// non-cyclic wheels go back and forth between the ends
+		target = cyclic ? target + 3 : itemCount - 1 - wheel.getCurrentItem();
+		wheel.spinTo(target, 11, durationMs, null);
+		clock.runUntilIdle(MAX_FRAMES);
+		return items + wheel.getCurrentItem();
+	}
+}
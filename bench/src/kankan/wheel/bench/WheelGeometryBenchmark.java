@@ -0,0 +1,111 @@
+package kankan.wheel.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import kankan.wheel.widget.core.WheelGeometry;
+import kankan.wheel.widget.core.WheelPosition;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Wheel position math of a whole spin: the per-frame scroll step with the visible
+ * range, the shortest path used by animated setCurrentItem and cyclic index normalization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WheelGeometryBenchmark {
+	/** Item height in pixels, as the 100 px slot symbols */
+	private static final int ITEM_HEIGHT = 100;
+	/** Frames of a spin, about two seconds at 60 frames per second */
+	private static final int SPIN_FRAMES = 120;
+
+	@Param({ "8", "64", "1024" })
+	public int itemCount;
+
+	@Param({ "3", "5", "9" })
+	public int visibleItems;
+
+	@Param({ "true", "false" })
+	public boolean cyclic;
+
+	@Param({ "10", "90", "1000" })
+	public int spinItems;
+
+	private final WheelGeometry geometry = new WheelGeometry();
+	// Scroll distance of each frame
+	private int[] deltas;
+	// Far indices as passed by long cyclic spins
+	private int[] indices;
+
+	@Setup
+	public void setup() {
+		geometry.setup(itemCount, ITEM_HEIGHT, visibleItems * ITEM_HEIGHT, cyclic);
+
+		// decelerating spin, the per-frame distances sum up to spinItems items
+		deltas = new int[SPIN_FRAMES];
+		int total = spinItems * ITEM_HEIGHT;
+		int left = total;
+		for (int i = 0; i < SPIN_FRAMES; i++) {
+			float t0 = (float) i / SPIN_FRAMES;
+			float t1 = (float) (i + 1) / SPIN_FRAMES;
+			int d = Math.round(total * (decelerate(t1) - decelerate(t0)));
+			deltas[i] = i == SPIN_FRAMES - 1 ? left : Math.min(d, left);
+			left -= deltas[i];
+		}
+
+		indices = new int[64];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = (i % 2 == 0 ? -1 : 1) * (i + 1) * spinItems;
+		}
+	}
+
+	private static float decelerate(float t) {
+		float u = 1 - t;
+		return 1 - u * u * u;
+	}
+
+	@Benchmark
+	public int spin(Blackhole blackhole) {
+		int currentItem = 0;
+		int offset = 0;
+		for (int i = 0; i < deltas.length; i++) {
+			// negative offsets move the wheel forward
+			geometry.scroll(currentItem, offset - deltas[i]);
+			currentItem = geometry.getItem();
+			offset = geometry.getOffset();
+			geometry.computeRange(currentItem, offset);
+			blackhole.consume(geometry.getRangeFirst());
+			blackhole.consume(geometry.getRangeCount());
+		}
+		return currentItem;
+	}
+
+	@Benchmark
+	public int shortestScroll() {
+		int sum = 0;
+		for (int from = 0; from < itemCount; from += 1 + itemCount / 16) {
+			for (int to = 0; to < itemCount; to += 1 + itemCount / 16) {
+				sum += geometry.shortestScroll(from, to);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int normalizeIndex() {
+		int sum = 0;
+		for (int i = 0; i < indices.length; i++) {
+			sum += WheelPosition.floorMod(indices[i], itemCount);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.aa.sim;
+
+/**
+ * Statistics of a batch of spins. Each worker fills its own instance,
+ * instances are merged when the fork/join tasks are joined, so recording
+ * needs no synchronization.
+ */
+public class SimulationStats {
+	/** Win size buckets, in multiples of the bet */
+	private static final int[] WIN_BOUNDS = { 1, 2, 5, 10, 20, 50, 100 };
+
+	private long spins;
+	private long hits;
+	private long totalPay;
+	private long totalPaySquared;
+
+	// Symbol counts on the line, [reel][symbol]
+	private final long[][] symbolCounts;
+	// Wins by size, the last bucket counts wins not below the last bound
+	private final long[] winCounts = new long[WIN_BOUNDS.length + 1];
+
+	/**
+	 * Constructor
+	 * @param reelCount the count of reels
+	 * @param symbolCount the count of symbols
+	 */
+	public SimulationStats(int reelCount, int symbolCount) {
+		symbolCounts = new long[reelCount][symbolCount];
+	}
+
+	/**
+	 * Records one spin
+	 * @param line the symbols on the line
+	 * @param pay the payout of the spin
+	 */
+	public void record(int[] line, int pay) {
+		spins++;
+		for (int i = 0; i < line.length; i++) {
+			symbolCounts[i][line[i]]++;
+		}
+		if (pay > 0) {
+			hits++;
+			totalPay += pay;
+			totalPaySquared += (long) pay * pay;
+
+			int bucket = 0;
+			while (bucket < WIN_BOUNDS.length && pay >= WIN_BOUNDS[bucket]) {
+				bucket++;
+			}
+			winCounts[bucket]++;
+		}
+	}
+
+	/**
+	 * Adds statistics of another batch
+	 * @param other the statistics to add
+	 */
+	public void merge(SimulationStats other) {
+		spins += other.spins;
+		hits += other.hits;
+		totalPay += other.totalPay;
+		totalPaySquared += other.totalPaySquared;
+		for (int i = 0; i < symbolCounts.length; i++) {
+			for (int j = 0; j < symbolCounts[i].length; j++) {
+				symbolCounts[i][j] += other.symbolCounts[i][j];
+			}
+		}
+		for (int i = 0; i < winCounts.length; i++) {
+			winCounts[i] += other.winCounts[i];
+		}
+	}
+
+	public long getSpins() {
+		return spins;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getTotalPay() {
+		return totalPay;
+	}
+
+	/**
+	 * Gets return to player
+	 * @return the paid amount per bet amount
+	 */
+	public double getRtp() {
+		return spins == 0 ? 0 : (double) totalPay / spins;
+	}
+
+	/**
+	 * Gets hit frequency
+	 * @return the share of spins that pay
+	 */
+	public double getHitRate() {
+		return spins == 0 ? 0 : (double) hits / spins;
+	}
+
+	/**
+	 * Gets variance of the payout per spin
+	 * @return the variance, in squared bets
+	 */
+	public double getVariance() {
+		if (spins == 0) {
+			return 0;
+		}
+		double mean = getRtp();
+		return (double) totalPaySquared / spins - mean * mean;
+	}
+
+	/**
+	 * Gets count of a symbol on the line
+	 * @param reel the reel index
+	 * @param symbol the symbol
+	 * @return the count of spins the symbol stopped on the line
+	 */
+	public long getSymbolCount(int reel, int symbol) {
+		return symbolCounts[reel][symbol];
+	}
+
+	/**
+	 * Gets count of wins by size
+	 * @param bucket the bucket index, see {@link #getWinBound(int)}
+	 * @return the count of wins in the bucket
+	 */
+	public long getWinCount(int bucket) {
+		return winCounts[bucket];
+	}
+
+	/**
+	 * Gets count of win size buckets
+	 * @return the bucket count
+	 */
+	public int getWinBucketCount() {
+		return winCounts.length;
+	}
+
+	/**
+	 * Gets exclusive upper bound of a win size bucket
+	 * @param bucket the bucket index
+	 * @return the bound in bets, Integer.MAX_VALUE for the last bucket
+	 */
+	public int getWinBound(int bucket) {
+		return bucket < WIN_BOUNDS.length ? WIN_BOUNDS[bucket] : Integer.MAX_VALUE;
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.aa.sim;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import com.example.aa.slot.AliasTable;
+import com.example.aa.slot.PayEvaluator;
+import com.example.aa.slot.SlotModel;
+
+/**
+ * Fork/join task simulating a range of spins. Ranges above the threshold are
+ * halved, the left half gets a split random stream, so every leaf draws from
+ * its own stream and the result depends only on the seed, not on scheduling.
+ */
+public class SimulationTask extends RecursiveTask<SimulationStats> {
+	private static final long serialVersionUID = 1L;
+
+	private final SlotModel model;
+	private final PayEvaluator evaluator;
+	private final long spins;
+	private final long threshold;
+	private final SplittableRandom random;
+
+	/**
+	 * Constructor
+	 * @param model the slot model
+	 * @param evaluator the pay evaluator of the model
+	 * @param spins the count of spins
+	 * @param threshold the maximum count of spins simulated without splitting
+	 * @param random the random stream of this task
+	 */
+	public SimulationTask(SlotModel model, PayEvaluator evaluator, long spins, long threshold,
+			SplittableRandom random) {
+		this.model = model;
+		this.evaluator = evaluator;
+		this.spins = spins;
+		this.threshold = threshold;
+		this.random = random;
+	}
+
+	@Override
+	protected SimulationStats compute() {
+		if (spins <= threshold) {
+			return simulate();
+		}
+
+		long half = spins / 2;
+		SimulationTask left = new SimulationTask(model, evaluator, half, threshold, random.split());
+		SimulationTask right = new SimulationTask(model, evaluator, spins - half, threshold, random);
+		left.fork();
+		SimulationStats stats = right.compute();
+		stats.merge(left.join());
+		return stats;
+	}
+
+	/**
+	 * Simulates spins of this task
+	 */
+	private SimulationStats simulate() {
+		int reelCount = model.getReelCount();
+		AliasTable[] tables = new AliasTable[reelCount];
+		int[] lengths = new int[reelCount];
+		for (int i = 0; i < reelCount; i++) {
+			tables[i] = model.getStopTable(i);
+			lengths[i] = tables[i].size();
+		}
+		int[] stops = new int[reelCount];
+		int[] line = new int[reelCount];
+		long[] window = new long[reelCount];
+		SimulationStats stats = new SimulationStats(reelCount, model.getPaytable().getSymbolCount());
+
+		for (long n = 0; n < spins; n++) {
+			for (int i = 0; i < reelCount; i++) {
+				stops[i] = tables[i].sample(random.nextInt(lengths[i]), random.nextDouble());
+				line[i] = model.getSymbol(i, stops[i]);
+			}
+			stats.record(line, evaluator.evaluate(stops, window, null));
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.aa.sim;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import com.example.aa.slot.PayEvaluator;
+import com.example.aa.slot.SlotModel;
+
+/**
+ * Headless RTP simulation of the default slot model on all cores.
+ * Arguments: [spins] [seed] [parallelism].
+ */
+public class Simulator {
+	/** Default count of spins */
+	private static final long DEF_SPINS = 100000000L;
+	/**
+	 * Maximum spins of a leaf task. Fixed rather than derived from the
+	 * parallelism, so the same seed splits the same way on any machine.
+	 */
+	private static final long LEAF_SPINS = 1L << 20;
+
+	private final SlotModel model;
+	private final PayEvaluator evaluator;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor
+	 * @param model the slot model
+	 * @param parallelism the count of worker threads
+	 */
+	public Simulator(SlotModel model, int parallelism) {
+		this.model = model;
+		// Only the center line pays, as on the device
+		this.evaluator = new PayEvaluator(model, 1, PayEvaluator.createRowLines(model.getReelCount(), 1));
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Simulates spins
+	 * @param spins the count of spins
+	 * @param seed the random seed, the same seed and count give the same statistics
+	 * @return the merged statistics
+	 */
+	public SimulationStats run(long spins, long seed) {
+		return pool.invoke(new SimulationTask(model, evaluator, spins, LEAF_SPINS, new SplittableRandom(seed)));
+	}
+
+	/**
+	 * Stops worker threads
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	public static void main(String[] args) {
+		long spins = args.length > 0 ? Long.parseLong(args[0]) : DEF_SPINS;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+		int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		SlotModel model = SlotModel.createDefault();
+		Simulator simulator = new Simulator(model, parallelism);
+		long start = System.nanoTime();
+		SimulationStats stats = simulator.run(spins, seed);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		simulator.shutdown();
+
+		report(model, stats, seed, parallelism, seconds);
+	}
+
+	/**
+	 * Prints statistics
+	 */
+	private static void report(SlotModel model, SimulationStats stats, long seed, int parallelism, double seconds) {
+		System.out.printf("spins        %,d (seed %d, %d workers)%n", stats.getSpins(), seed, parallelism);
+		System.out.printf("time         %.2f s, %,.0f spins/s%n", seconds, stats.getSpins() / seconds);
+		System.out.printf("RTP          %.4f%%%n", stats.getRtp() * 100);
+		System.out.printf("hit rate     %.4f%%%n", stats.getHitRate() * 100);
+		System.out.printf("variance     %.4f (sd %.4f)%n", stats.getVariance(), Math.sqrt(stats.getVariance()));
+
+		System.out.println("wins by size (bets)");
+		for (int i = 0; i < stats.getWinBucketCount(); i++) {
+			int bound = stats.getWinBound(i);
+			String label = bound == Integer.MAX_VALUE ? ">= " + stats.getWinBound(i - 1) : "< " + bound;
+			System.out.printf("  %-8s %,d%n", label, stats.getWinCount(i));
+		}
+
+		System.out.println("symbol frequency on the line, per reel");
+		for (int symbol = 0; symbol < model.getPaytable().getSymbolCount(); symbol++) {
+			String name = symbol < SlotModel.SYMBOL_NAMES.length ? SlotModel.SYMBOL_NAMES[symbol] : "#" + symbol;
+			System.out.printf("  %-8s", name);
+			for (int reel = 0; reel < model.getReelCount(); reel++) {
+				System.out.printf(" %8.4f%%", 100.0 * stats.getSymbolCount(reel, symbol) / stats.getSpins());
+			}
+			System.out.println();
+		}
+	}
+}
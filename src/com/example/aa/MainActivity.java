@@ -1,16 +1,18 @@
 package com.example.aa;
 
-import java.lang.ref.SoftReference;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 import kankan.wheel.widget.OnWheelChangedListener;
 import kankan.wheel.widget.OnWheelScrollListener;
+import kankan.wheel.widget.SpinController;
 import kankan.wheel.widget.WheelView;
 import kankan.wheel.widget.adapters.AbstractWheelAdapter;
+import kankan.wheel.widget.adapters.BitmapCache;
+import kankan.wheel.widget.adapters.BitmapLoader;
+import kankan.wheel.widget.adapters.SymbolStripRenderer;
+import com.example.aa.slot.SlotModel;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.support.v7.app.ActionBarActivity;
 import android.util.Log;
@@ -25,12 +27,32 @@ import android.widget.ImageView;
 
 public class MainActivity extends ActionBarActivity   {
 	private String TAG = "zhongwuchisha";
+
+	// 后台解码图片
+	private BitmapLoader bitmapLoader;
+	// 轮子的转动请求，转动中的请求直接丢弃
+	private SpinController spinController;
+	// 转轮和赔率模型，转动结果按它的权重抽取
+	private final SlotModel slotModel = SlotModel.createDefault();
+	private final Random random = new Random();
     
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		setContentView(R.layout.activity_main);
+		bitmapLoader = new BitmapLoader(getResources(), BitmapCache.getInstance());
         initWheel(R.id.slot_1);
+        spinController = new SpinController(getWheel(R.id.slot_1));
+	}
+
+	@Override
+	protected void onDestroy() {
+		bitmapLoader.shutdown();
+		// 长图和缩小的长图跟着解码线程一起释放，先从轮子上拿掉免得再画
+		WheelView wheel = getWheel(R.id.slot_1);
+		wheel.setItemRenderer(null);
+		((SlotMachineAdapter) wheel.getViewAdapter()).releaseStrip();
+		super.onDestroy();
 	}
 	// 车轮滚动标志
     private boolean wheelScrolled = false;
@@ -43,6 +65,9 @@ public class MainActivity extends ActionBarActivity   {
         public void onScrollingFinished(WheelView wheel) {
         	wheelScrolled = false;
         	System.out.println("轮子---->"+wheel.getCurrentItem());
+        	if (BuildConfig.DEBUG) {
+        	    Log.d(TAG, "wheel metrics:::" + wheel.getMetricsSnapshot());
+        	}
             //updateStatus();
         }
     };
@@ -50,6 +75,7 @@ public class MainActivity extends ActionBarActivity   {
     // 车轮item改变的监听器
     private OnWheelChangedListener changedListener = new OnWheelChangedListener() {
         public void onChanged(WheelView wheel, int oldValue, int newValue) {
+            ((SlotMachineAdapter) wheel.getViewAdapter()).prefetch(newValue);
             if (!wheelScrolled) {
             	System.out.println("轮子item---->"+wheel.getCurrentItem());
             }
@@ -64,7 +90,18 @@ public class MainActivity extends ActionBarActivity   {
      */
     private void initWheel(int id) {
         WheelView wheel = getWheel(id);
-        wheel.setViewAdapter(new SlotMachineAdapter(this));
+        SlotMachineAdapter adapter = new SlotMachineAdapter(this, bitmapLoader);
+        wheel.setViewAdapter(adapter);
+        // 所有图片都是一样大小，测量时不需要创建item
+        wheel.setFixedItemSize(adapter.IMAGE_WIDTH, adapter.IMAGE_HEIGHT);
+        // 所有图片合成一张长图，每帧只截取可见的窗口画到Canvas上
+        SymbolStripRenderer strip = adapter.createStripRenderer();
+        // 转得快时看不清细节，改画缩小一半和四分之一的长图
+        strip.setReducedLevels(2);
+        wheel.setItemRenderer(strip);
+        wheel.setLevelOfDetailThresholds(new float[] { 15, 30 });
+        // 只在调试版记录性能统计
+        wheel.getMetrics().setEnabled(BuildConfig.DEBUG);
         //wheel.setCurrentItem((int)(Math.random() * 10));
         wheel.setCurrentItem(0);
         wheel.addChangingListener(changedListener);
@@ -93,12 +130,15 @@ public class MainActivity extends ActionBarActivity   {
     }
     
     /**
-     * 转动轮子
+     * 转动轮子，先按转轮权重抽出停止位置，一次动画停在这个item上。
+     * 轮子还在转时请求会被丢弃。
      * @param id the wheel id
      */
     private void mixWheel(int id,int round,int time) {
         WheelView wheel = getWheel(id);
-        wheel.scroll(round, time);
+        int count = wheel.getViewAdapter().getItemsCount();
+        int stop = slotModel.sampleStop(0, random);
+        spinController.request(stop, round / count, time);
         //wheel.scroll((int)(Math.random() * 50)+round, time);
         //wheel.scroll(-350 + (int)(Math.random() * 50), 2000);
     }
@@ -123,8 +163,14 @@ public class MainActivity extends ActionBarActivity   {
                 android.R.drawable.ic_delete
         };
         
-        // 对图片的缓存
-        private List<SoftReference<Bitmap>> images;
+        // 当前item前后预先解码的图片数目
+        private static final int PREFETCH_RADIUS = 3;
+
+        // 后台解码图片，解码好的图片放在共用的缓存里
+        private BitmapLoader loader;
+
+        // 合成的长图，图片解码后补进去
+        private SymbolStripRenderer strip;
         
         // 布局膨胀器
         private Context context;
@@ -132,24 +178,51 @@ public class MainActivity extends ActionBarActivity   {
         /**
          * 构造函数
          */
-        public SlotMachineAdapter(Context context) {
+        public SlotMachineAdapter(Context context, BitmapLoader loader) {
             this.context = context;
-            images = new ArrayList<SoftReference<Bitmap>>(items.length);
+            this.loader = loader;
+            loader.addListener(loadedListener);
+
+            // 先解码开始时可见的图片，长图需要所有的图片
+            prefetch(0);
             for (int id : items) {
-                images.add(new SoftReference<Bitmap>(loadImage(id)));
+                loader.request(id, IMAGE_WIDTH, IMAGE_HEIGHT, false);
             }
         }
-        
+
         /**
-         * 从资源加载图片
+         * 预先解码当前item附近的图片
          */
-        private Bitmap loadImage(int id) {
-            Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), id);
-            Bitmap scaled = Bitmap.createScaledBitmap(bitmap, IMAGE_WIDTH, IMAGE_HEIGHT, true);
-            bitmap.recycle();
-            return scaled;
+        public void prefetch(int index) {
+            for (int i = index - PREFETCH_RADIUS; i <= index + PREFETCH_RADIUS; i++) {
+                int item = i % items.length;
+                if (item < 0) {
+                    item += items.length;
+                }
+                loader.request(items[item], IMAGE_WIDTH, IMAGE_HEIGHT, false);
+            }
         }
 
+        // 图片解码完成后补到长图里并重画轮子。长图原地更新，不需要重新测量和布局
+        private BitmapLoader.OnBitmapLoadedListener loadedListener = new BitmapLoader.OnBitmapLoadedListener() {
+            public void onBitmapLoaded(int resId, int width, int height, Bitmap bitmap) {
+                if (width != IMAGE_WIDTH || height != IMAGE_HEIGHT) {
+                    return;
+                }
+                if (strip == null) {
+                    // 没有长图时item是ImageView，需要重新创建
+                    notifyDataChangedEvent();
+                    return;
+                }
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i] == resId) {
+                        strip.setSymbol(i, bitmap);
+                    }
+                }
+                getWheel(R.id.slot_1).invalidate();
+            }
+        };
+
         @Override
         public int getItemsCount() {
             return items.length;
@@ -167,16 +240,39 @@ public class MainActivity extends ActionBarActivity   {
                 img = new ImageView(context);
             }
             img.setLayoutParams(params);
-            SoftReference<Bitmap> bitmapRef = images.get(index);
-            Bitmap bitmap = bitmapRef.get();
-            if (bitmap == null) {
-                bitmap = loadImage(items[index]);
-                images.set(index, new SoftReference<Bitmap>(bitmap));
-            }
-            img.setImageBitmap(bitmap);
+            img.setImageBitmap(getBitmap(index));
             
             return img;
         }
+
+        /**
+         * 获取图片，还没有解码好时返回null，显示为空白占位
+         */
+        private Bitmap getBitmap(int index) {
+            return loader.get(items[index], IMAGE_WIDTH, IMAGE_HEIGHT, false);
+        }
+
+        /**
+         * 把所有图片合成一张长图的渲染器
+         */
+        public SymbolStripRenderer createStripRenderer() {
+            Bitmap[] symbols = new Bitmap[items.length];
+            for (int i = 0; i < items.length; i++) {
+                symbols[i] = getBitmap(i);
+            }
+            strip = new SymbolStripRenderer(symbols, IMAGE_WIDTH, IMAGE_HEIGHT);
+            return strip;
+        }
+
+        /**
+         * 回收长图和缩小的长图
+         */
+        public void releaseStrip() {
+            if (strip != null) {
+                strip.recycle();
+                strip = null;
+            }
+        }
     }
 	@Override
 	public boolean onCreateOptionsMenu(Menu menu) {
@@ -186,6 +282,18 @@ public class MainActivity extends ActionBarActivity   {
 		return true;
 	}
 
+	@Override
+	public void onTrimMemory(int level) {
+		super.onTrimMemory(level);
+		BitmapCache.getInstance().onTrimMemory(level);
+	}
+
+	@Override
+	public void onLowMemory() {
+		super.onLowMemory();
+		BitmapCache.getInstance().onLowMemory();
+	}
+
 	@Override
 	public boolean onKeyDown(int keyCode, KeyEvent event) {
 		Log.d(TAG, "keyCode:::"+keyCode);
@@ -207,7 +315,10 @@ public class MainActivity extends ActionBarActivity   {
 	
 	@Override
 	public boolean dispatchTouchEvent(MotionEvent ev) {
-		mixWheel(R.id.slot_1,90,7000);
+		// 每次按下只请求一次转动，移动和抬起不再重新开始
+		if (ev.getAction() == MotionEvent.ACTION_DOWN) {
+			mixWheel(R.id.slot_1,90,7000);
+		}
 		return super.dispatchTouchEvent(ev);
 	}
 	
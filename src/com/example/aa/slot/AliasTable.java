@@ -0,0 +1,128 @@
+package com.example.aa.slot;
+
+import java.util.Random;
+
+/**
+ * 按权重抽取下标的别名表（Vose方法），建表O(n)，每次抽取O(1)：
+ * 一个随机整数选列，一个随机小数决定取这一列还是它的别名。
+ * 建好后不再修改，可以在多个线程间共用。
+ */
+public final class AliasTable {
+	// 每一列取自己的概率
+	private final double[] probability;
+	// 每一列的别名
+	private final int[] alias;
+	// 原始权重和权重和，用来算准确的概率
+	private final int[] weights;
+	private final long totalWeight;
+
+	/**
+	 * 构造函数
+	 * @param weights the non-negative weight of each index, at least one positive
+	 */
+	public AliasTable(int[] weights) {
+		int n = weights.length;
+		if (n == 0) {
+			throw new IllegalArgumentException("No weights");
+		}
+		long total = 0;
+		for (int i = 0; i < n; i++) {
+			if (weights[i] < 0) {
+				throw new IllegalArgumentException("Negative weight at " + i);
+			}
+			total += weights[i];
+		}
+		if (total == 0) {
+			throw new IllegalArgumentException("All weights are zero");
+		}
+
+		this.weights = weights.clone();
+		this.totalWeight = total;
+		probability = new double[n];
+		alias = new int[n];
+
+		// 权重放大到平均为1，小于1的列用大于1的列补满
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = (double) weights[i] * n / total;
+			if (scaled[i] < 1) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+
+		while (smallCount > 0 && largeCount > 0) {
+			int s = small[--smallCount];
+			int l = large[--largeCount];
+			probability[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1;
+			if (scaled[l] < 1) {
+				small[smallCount++] = l;
+			} else {
+				large[largeCount++] = l;
+			}
+		}
+		// 剩下的列只差舍入误差，当作满的
+		while (largeCount > 0) {
+			int l = large[--largeCount];
+			probability[l] = 1;
+			alias[l] = l;
+		}
+		while (smallCount > 0) {
+			int s = small[--smallCount];
+			probability[s] = 1;
+			alias[s] = s;
+		}
+	}
+
+	/**
+	 * 获取下标的个数
+	 * @return the count of indices
+	 */
+	public int size() {
+		return probability.length;
+	}
+
+	/**
+	 * 抽取一个下标
+	 * @param column a uniform random int in [0, size)
+	 * @param coin a uniform random double in [0, 1)
+	 * @return the sampled index
+	 */
+	public int sample(int column, double coin) {
+		return coin < probability[column] ? column : alias[column];
+	}
+
+	/**
+	 * 抽取一个下标
+	 * @param random the random source
+	 * @return the sampled index
+	 */
+	public int sample(Random random) {
+		return sample(random.nextInt(probability.length), random.nextDouble());
+	}
+
+	/**
+	 * 获取下标的权重
+	 * @param index the index
+	 * @return the weight
+	 */
+	public int getWeight(int index) {
+		return weights[index];
+	}
+
+	/**
+	 * 获取下标被抽到的概率
+	 * @param index the index
+	 * @return the probability
+	 */
+	public double getProbability(int index) {
+		return (double) weights[index] / totalWeight;
+	}
+}
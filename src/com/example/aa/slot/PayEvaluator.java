@@ -0,0 +1,185 @@
+package com.example.aa.slot;
+
+/**
+ * 查表计算所有赔付线的赔付，界面和离线模拟共用，保证两边算出的结果一样。
+ * <p>
+ * 每个图案编码成固定位数，转轮停在某个位置时可见的几行图案拼成一个窗口编码，
+ * 每个停止位置的窗口编码预先算好。一条线从各转轮的窗口编码里取出对应行的图案，
+ * 拼成线编码后直接查赔付表，赔付表按{@link Paytable#evaluate(int[])}的规则预先算好，
+ * 所以百搭也不需要在转动时判断。
+ * <p>
+ * 建好后不再修改，可以在线程间共用；计算时用调用者的缓冲区，不分配内存。
+ */
+public final class PayEvaluator {
+	/** 赔付表最多的编码位数，2^20个int，4MB */
+	private static final int MAX_TABLE_BITS = 20;
+	/** 窗口编码最多的位数 */
+	private static final int MAX_WINDOW_BITS = 63;
+
+	private final int reelCount;
+	private final int rows;
+	private final int lineCount;
+	// 每个图案的位数
+	private final int bits;
+	private final long mask;
+	// 每个转轮每个停止位置的窗口编码，windowCodes[reel][stop]
+	private final long[][] windowCodes;
+	// 每条线在每个转轮上取的行对应的移位，lineShifts[line * reelCount + reel]
+	private final int[] lineShifts;
+	// 线编码对应的赔付
+	private final int[] payTable;
+
+	/**
+	 * 构造函数
+	 * @param model the slot model
+	 * @param rows the count of visible rows, centered on the stop position
+	 * @param lines the row of each reel on each line, lines[line][reel], rows counted from the top
+	 */
+	public PayEvaluator(SlotModel model, int rows, int[][] lines) {
+		reelCount = model.getReelCount();
+		this.rows = rows;
+		lineCount = lines.length;
+
+		int symbolCount = model.getPaytable().getSymbolCount();
+		bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(symbolCount - 1));
+		mask = (1L << bits) - 1;
+		if (bits * reelCount > MAX_TABLE_BITS) {
+			throw new IllegalArgumentException("Too many reels or symbols for the pay table: "
+					+ reelCount + " reels, " + symbolCount + " symbols");
+		}
+		if (rows < 1 || bits * rows > MAX_WINDOW_BITS) {
+			throw new IllegalArgumentException("Invalid row count: " + rows);
+		}
+
+		lineShifts = new int[lineCount * reelCount];
+		for (int line = 0; line < lineCount; line++) {
+			if (lines[line].length != reelCount) {
+				throw new IllegalArgumentException("Line " + line + " does not match the reel count");
+			}
+			for (int reel = 0; reel < reelCount; reel++) {
+				int row = lines[line][reel];
+				if (row < 0 || row >= rows) {
+					throw new IllegalArgumentException("Line " + line + " row out of range: " + row);
+				}
+				lineShifts[line * reelCount + reel] = row * bits;
+			}
+		}
+
+		windowCodes = new long[reelCount][];
+		for (int reel = 0; reel < reelCount; reel++) {
+			int length = model.getReelLength(reel);
+			windowCodes[reel] = new long[length];
+			for (int stop = 0; stop < length; stop++) {
+				long code = 0;
+				for (int row = 0; row < rows; row++) {
+					int index = stop + row - rows / 2;
+					index = ((index % length) + length) % length;
+					code |= (long) model.getSymbol(reel, index) << (row * bits);
+				}
+				windowCodes[reel][stop] = code;
+			}
+		}
+
+		Paytable paytable = model.getPaytable();
+		payTable = new int[1 << (bits * reelCount)];
+		int[] line = new int[reelCount];
+		for (int code = 0; code < payTable.length; code++) {
+			boolean valid = true;
+			for (int reel = 0; reel < reelCount; reel++) {
+				line[reel] = (int) ((code >>> (reel * bits)) & mask);
+				valid &= line[reel] < symbolCount;
+			}
+			payTable[code] = valid ? paytable.evaluate(line) : 0;
+		}
+	}
+
+	/**
+	 * 创建每行一条的横线，中间一行在前
+	 * @param reelCount the count of reels
+	 * @param rows the count of visible rows
+	 * @return the lines, lines[line][reel]
+	 */
+	public static int[][] createRowLines(int reelCount, int rows) {
+		int[][] lines = new int[rows][reelCount];
+		for (int i = 0; i < rows; i++) {
+			// 中间，上一行，下一行，再往外
+			int offset = (i + 1) / 2;
+			int row = rows / 2 + ((i & 1) == 1 ? -offset : offset);
+			for (int reel = 0; reel < reelCount; reel++) {
+				lines[i][reel] = row;
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * 获取可见的行数
+	 * @return the count of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * 获取赔付线的条数
+	 * @return the count of lines
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * 获取转轮停在某个位置时的窗口编码
+	 * @param reel the reel index
+	 * @param stop the stop position
+	 * @return the packed symbols of the visible rows
+	 */
+	public long getWindowCode(int reel, int stop) {
+		return windowCodes[reel][stop];
+	}
+
+	/**
+	 * 把所有转轮的停止位置编码成窗口
+	 * @param stops the stop position of each reel
+	 * @param window the buffer receiving the window code of each reel
+	 */
+	public void encodeWindow(int[] stops, long[] window) {
+		for (int reel = 0; reel < reelCount; reel++) {
+			window[reel] = windowCodes[reel][stops[reel]];
+		}
+	}
+
+	/**
+	 * 计算所有赔付线的赔付
+	 * @param window the window code of each reel
+	 * @param linePays the buffer receiving the payout of each line, or null
+	 * @return the total payout
+	 */
+	public int evaluate(long[] window, int[] linePays) {
+		int total = 0;
+		for (int line = 0, shift = 0; line < lineCount; line++) {
+			int code = 0;
+			for (int reel = 0; reel < reelCount; reel++, shift++) {
+				code |= (int) ((window[reel] >>> lineShifts[shift]) & mask) << (reel * bits);
+			}
+			int pay = payTable[code];
+			if (linePays != null) {
+				linePays[line] = pay;
+			}
+			total += pay;
+		}
+		return total;
+	}
+
+	/**
+	 * 计算所有转轮停下后所有赔付线的赔付
+	 * @param stops the stop position of each reel
+	 * @param window the buffer for the window code of each reel
+	 * @param linePays the buffer receiving the payout of each line, or null
+	 * @return the total payout
+	 */
+	public int evaluate(int[] stops, long[] window, int[] linePays) {
+		encodeWindow(stops, window);
+		return evaluate(window, linePays);
+	}
+}
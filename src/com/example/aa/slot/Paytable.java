@@ -0,0 +1,93 @@
+package com.example.aa.slot;
+
+/**
+ * 赔率表，从左到右连续相同的图案按个数赔付，百搭图案可以代替任何图案。
+ * 赔付是押1时得到的倍数。
+ */
+public class Paytable {
+	/** 没有百搭图案 */
+	public static final int NO_WILD = -1;
+
+	// 每个图案连续n个时的赔付，pays[symbol][n]
+	private final int[][] pays;
+	// 百搭图案
+	private final int wild;
+
+	/**
+	 * 构造函数，没有百搭图案
+	 * @param pays the payout of each symbol by run length, pays[symbol][count]
+	 */
+	public Paytable(int[][] pays) {
+		this(pays, NO_WILD);
+	}
+
+	/**
+	 * 构造函数
+	 * @param pays the payout of each symbol by run length, pays[symbol][count]
+	 * @param wild the wild symbol, or {@link #NO_WILD}
+	 */
+	public Paytable(int[][] pays, int wild) {
+		if (wild != NO_WILD && (wild < 0 || wild >= pays.length)) {
+			throw new IllegalArgumentException("Wild symbol out of range: " + wild);
+		}
+		this.pays = new int[pays.length][];
+		for (int i = 0; i < pays.length; i++) {
+			this.pays[i] = pays[i].clone();
+		}
+		this.wild = wild;
+	}
+
+	/**
+	 * 获取图案的个数
+	 * @return the count of symbols
+	 */
+	public int getSymbolCount() {
+		return pays.length;
+	}
+
+	/**
+	 * 获取百搭图案
+	 * @return the wild symbol, or {@link #NO_WILD}
+	 */
+	public int getWild() {
+		return wild;
+	}
+
+	/**
+	 * 获取图案连续出现时的赔付
+	 * @param symbol the symbol
+	 * @param count the run length
+	 * @return the payout, 0 if the run does not pay
+	 */
+	public int getPay(int symbol, int count) {
+		int[] symbolPays = pays[symbol];
+		return count < symbolPays.length ? symbolPays[count] : symbolPays[symbolPays.length - 1];
+	}
+
+	/**
+	 * 计算一条线的赔付。开头的百搭算作后面第一个普通图案，
+	 * 开头只有百搭时也按百搭自己的赔付算，取大的那个。
+	 * @param line the symbols on the line, from the left reel
+	 * @return the payout
+	 */
+	public int evaluate(int[] line) {
+		int wildCount = 0;
+		while (wildCount < line.length && line[wildCount] == wild) {
+			wildCount++;
+		}
+		if (wildCount == line.length) {
+			return getPay(wild, wildCount);
+		}
+
+		int symbol = line[wildCount];
+		int count = wildCount + 1;
+		while (count < line.length && (line[count] == symbol || line[count] == wild)) {
+			count++;
+		}
+		int pay = getPay(symbol, count);
+		if (wildCount > 0) {
+			pay = Math.max(pay, getPay(wild, wildCount));
+		}
+		return pay;
+	}
+}
@@ -0,0 +1,177 @@
+package com.example.aa.slot;
+
+import java.util.Random;
+
+/**
+ * 老虎机的转轮和图案模型，不依赖Android，界面和离线模拟共用。
+ * 每个转轮是一条图案序列，停在某个位置时中间一行的图案组成一条线。
+ * 图案的编号就是{@code SlotMachineAdapter}里图片数组的下标。
+ * 每个位置有权重，停在哪个位置用转轮的别名表抽取。模型不可修改，可以在线程间共用。
+ */
+public class SlotModel {
+	/** 图案的个数，和界面上的图片一一对应 */
+	public static final int SYMBOL_COUNT = 8;
+
+	/** 图案的名字，按编号排列 */
+	public static final String[] SYMBOL_NAMES = {
+		"canada", "france", "ukraine", "usa", "star", "warning", "radio", "delete"
+	};
+
+	// 转轮上的图案
+	private final int[][] reels;
+	// 每个转轮停止位置的别名表
+	private final AliasTable[] stopTables;
+	// 赔率表
+	private final Paytable paytable;
+
+	/**
+	 * 构造函数，每个位置的权重相同
+	 * @param reels the symbols of each reel strip
+	 * @param paytable the paytable
+	 */
+	public SlotModel(int[][] reels, Paytable paytable) {
+		this(reels, (int[][]) null, paytable);
+	}
+
+	/**
+	 * 构造函数
+	 * @param reels the symbols of each reel strip
+	 * @param weights the weight of each stop, weights[reel][stop], or null for equal weights
+	 * @param paytable the paytable
+	 */
+	public SlotModel(int[][] reels, int[][] weights, Paytable paytable) {
+		this.reels = new int[reels.length][];
+		this.stopTables = new AliasTable[reels.length];
+		for (int i = 0; i < reels.length; i++) {
+			this.reels[i] = reels[i].clone();
+			stopTables[i] = createStopTable(reels[i], weights != null ? weights[i] : null);
+		}
+		this.paytable = paytable;
+	}
+
+	// 共用图案和其他转轮的表
+	private SlotModel(int[][] reels, AliasTable[] stopTables, Paytable paytable) {
+		this.reels = reels;
+		this.stopTables = stopTables;
+		this.paytable = paytable;
+	}
+
+	/**
+	 * 创建停止位置的别名表
+	 */
+	private static AliasTable createStopTable(int[] reel, int[] weights) {
+		if (weights == null) {
+			weights = new int[reel.length];
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] = 1;
+			}
+		} else if (weights.length != reel.length) {
+			throw new IllegalArgumentException("Weights do not match the reel length");
+		}
+		return new AliasTable(weights);
+	}
+
+	/**
+	 * 创建默认的模型：三个转轮，每个转轮按顺序排着全部图案，和界面上的轮子一样
+	 * @return the default model
+	 */
+	public static SlotModel createDefault() {
+		int[] strip = new int[SYMBOL_COUNT];
+		for (int i = 0; i < strip.length; i++) {
+			strip[i] = i;
+		}
+		int[][] reels = { strip, strip, strip };
+
+		// pays[symbol][count]，两个和三个相同时赔付
+		int[][] pays = {
+			{ 0, 0, 8, 80 },
+			{ 0, 0, 6, 60 },
+			{ 0, 0, 5, 40 },
+			{ 0, 0, 4, 30 },
+			{ 0, 0, 3, 20 },
+			{ 0, 0, 2, 15 },
+			{ 0, 0, 2, 10 },
+			{ 0, 0, 2, 10 },
+		};
+		return new SlotModel(reels, new Paytable(pays));
+	}
+
+	/**
+	 * 获取转轮个数
+	 * @return the count of reels
+	 */
+	public int getReelCount() {
+		return reels.length;
+	}
+
+	/**
+	 * 获取转轮的长度
+	 * @param reel the reel index
+	 * @return the count of stops on the reel
+	 */
+	public int getReelLength(int reel) {
+		return reels[reel].length;
+	}
+
+	/**
+	 * 获取转轮停在某个位置时的图案
+	 * @param reel the reel index
+	 * @param stop the stop position
+	 * @return the symbol
+	 */
+	public int getSymbol(int reel, int stop) {
+		return reels[reel][stop];
+	}
+
+	/**
+	 * 获取转轮停止位置的别名表
+	 * @param reel the reel index
+	 * @return the table, indexed by stop position
+	 */
+	public AliasTable getStopTable(int reel) {
+		return stopTables[reel];
+	}
+
+	/**
+	 * 按权重抽取转轮的停止位置
+	 * @param reel the reel index
+	 * @param random the random source
+	 * @return the stop position
+	 */
+	public int sampleStop(int reel, Random random) {
+		return stopTables[reel].sample(random);
+	}
+
+	/**
+	 * 换掉一个转轮的权重，只重建这个转轮的表
+	 * @param reel the reel index
+	 * @param weights the weight of each stop on the reel
+	 * @return the new model, this model is not changed
+	 */
+	public SlotModel withWeights(int reel, int[] weights) {
+		AliasTable[] tables = stopTables.clone();
+		tables[reel] = createStopTable(reels[reel], weights);
+		return new SlotModel(reels, tables, paytable);
+	}
+
+	/**
+	 * 获取赔率表
+	 * @return the paytable
+	 */
+	public Paytable getPaytable() {
+		return paytable;
+	}
+
+	/**
+	 * 计算所有转轮停下后的赔付
+	 * @param stops the stop position of each reel
+	 * @param line the buffer receiving the symbols on the line, as long as the reel count
+	 * @return the payout
+	 */
+	public int evaluate(int[] stops, int[] line) {
+		for (int i = 0; i < reels.length; i++) {
+			line[i] = reels[i][stops[i]];
+		}
+		return paytable.evaluate(line);
+	}
+}
@@ -0,0 +1,115 @@
+package kankan.wheel.widget;
+
+import kankan.wheel.widget.core.BaseFrameClock;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+/**
+ * 跟随屏幕刷新的帧时钟。
+ * Android 4.1及以上使用Choreographer的vsync信号，低版本用Handler按16ms对齐模拟。
+ * 所有轮子共用一个实例，每帧只向系统请求一次回调。
+ * 只能在主线程使用。
+ */
+public class AndroidFrameClock extends BaseFrameClock {
+	/** 没有Choreographer时的帧间隔 */
+	private static final long FALLBACK_FRAME_INTERVAL = 16;
+
+	// 主线程共用的实例
+	private static AndroidFrameClock instance;
+
+	// Android 4.1及以上的帧信号
+	private ChoreographerSource choreographerSource;
+	// 低版本的帧信号
+	private Handler handler;
+	private boolean frameScheduled;
+
+	/**
+	 * 获取主线程共用的帧时钟
+	 * @return the shared frame clock
+	 */
+	public static AndroidFrameClock getInstance() {
+		if (instance == null) {
+			instance = new AndroidFrameClock();
+		}
+		return instance;
+	}
+
+	/**
+	 * 构造函数
+	 */
+	private AndroidFrameClock() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			choreographerSource = new ChoreographerSource();
+		} else {
+			handler = new Handler(Looper.getMainLooper());
+		}
+	}
+
+	@Override
+	protected void scheduleFrame() {
+		if (frameScheduled) {
+			return;
+		}
+		frameScheduled = true;
+
+		if (choreographerSource != null) {
+			choreographerSource.post();
+		} else {
+			long now = SystemClock.uptimeMillis();
+			handler.postAtTime(frameRunnable, now - now % FALLBACK_FRAME_INTERVAL + FALLBACK_FRAME_INTERVAL);
+		}
+	}
+
+	@Override
+	protected void cancelFrame() {
+		if (!frameScheduled) {
+			return;
+		}
+		frameScheduled = false;
+
+		if (choreographerSource != null) {
+			choreographerSource.remove();
+		} else {
+			handler.removeCallbacks(frameRunnable);
+		}
+	}
+
+	/**
+	 * 处理一帧
+	 * @param frameTimeNanos the frame start time in nanoseconds
+	 */
+	private void onFrame(long frameTimeNanos) {
+		frameScheduled = false;
+		dispatchFrame(frameTimeNanos);
+	}
+
+	// 低版本的帧任务
+	private final Runnable frameRunnable = new Runnable() {
+		public void run() {
+			onFrame(SystemClock.uptimeMillis() * 1000000L);
+		}
+	};
+
+	/**
+	 * Choreographer的包装，只在Android 4.1及以上加载这个类
+	 */
+	private class ChoreographerSource implements Choreographer.FrameCallback {
+		private final Choreographer choreographer = Choreographer.getInstance();
+
+		void post() {
+			choreographer.postFrameCallback(this);
+		}
+
+		void remove() {
+			choreographer.removeFrameCallback(this);
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			onFrame(frameTimeNanos);
+		}
+	}
+}
@@ -26,6 +26,16 @@ public class ItemsRange {
 		this.first = first;
 		this.count = count;
 	}
+
+	/**
+	 * Updates range in place, so a single instance can be reused between frames
+	 * @param first the number of first item
+	 * @param count the count of items
+	 */
+	public void set(int first, int count) {
+		this.first = first;
+		this.count = count;
+	}
 	
 	/**
 	 * Gets number of  first item
@@ -0,0 +1,114 @@
+package kankan.wheel.widget;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 写时复制的监听器列表。
+ * 添加和删除时复制数组，通知时取出当前数组的快照按下标遍历，不分配对象，
+ * 回调里添加或删除监听器也不影响正在进行的通知。
+ * 每个监听器可以带一个Executor，带了Executor的监听器由调用方在该Executor上回调。
+ * @param <T> the listener type
+ */
+public class ListenerList<T> {
+	// 空列表
+	private static final Object[] EMPTY = new Object[0];
+
+	// 监听器和它的Executor交替存放，只整体替换，不修改
+	private volatile Object[] entries = EMPTY;
+
+	/**
+	 * 添加在调用线程上回调的监听器
+	 * @param listener the listener
+	 */
+	public void add(T listener) {
+		add(listener, null);
+	}
+
+	/**
+	 * 添加监听器
+	 * @param listener the listener
+	 * @param executor the executor to call the listener on, or null to call it directly
+	 */
+	public synchronized void add(T listener, Executor executor) {
+		Object[] old = entries;
+		Object[] resized = new Object[old.length + 2];
+		System.arraycopy(old, 0, resized, 0, old.length);
+		resized[old.length] = listener;
+		resized[old.length + 1] = executor;
+		entries = resized;
+	}
+
+	/**
+	 * 删除监听器，同一个监听器添加了多次时只删除第一个
+	 * @param listener the listener
+	 */
+	public synchronized void remove(T listener) {
+		Object[] old = entries;
+		for (int i = 0; i < old.length; i += 2) {
+			if (old[i] == listener || (listener != null && listener.equals(old[i]))) {
+				if (old.length == 2) {
+					entries = EMPTY;
+					return;
+				}
+				Object[] resized = new Object[old.length - 2];
+				System.arraycopy(old, 0, resized, 0, i);
+				System.arraycopy(old, i + 2, resized, i, old.length - i - 2);
+				entries = resized;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 删除所有的监听器
+	 */
+	public synchronized void clear() {
+		entries = EMPTY;
+	}
+
+	/**
+	 * 获取监听器数目
+	 * @return the count of listeners
+	 */
+	public int size() {
+		return entries.length / 2;
+	}
+
+	/**
+	 * 获取当前的快照，通知时用快照遍历
+	 * @return the snapshot, it is never modified
+	 */
+	public Object[] snapshot() {
+		return entries;
+	}
+
+	/**
+	 * 获取快照里的监听器数目
+	 * @param snapshot the snapshot
+	 * @return the count of listeners in the snapshot
+	 */
+	public static int size(Object[] snapshot) {
+		return snapshot.length / 2;
+	}
+
+	/**
+	 * 获取快照里的监听器
+	 * @param snapshot the snapshot
+	 * @param index the listener index
+	 * @return the listener
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(Object[] snapshot, int index) {
+		return (T) snapshot[index * 2];
+	}
+
+	/**
+	 * 获取快照里监听器的Executor
+	 * @param snapshot the snapshot
+	 * @param index the listener index
+	 * @return the executor, or null if the listener is called directly
+	 */
+	public static Executor getExecutor(Object[] snapshot, int index) {
+		return (Executor) snapshot[index * 2 + 1];
+	}
+}
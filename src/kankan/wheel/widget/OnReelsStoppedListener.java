@@ -0,0 +1,13 @@
+package kankan.wheel.widget;
+
+/**
+ * 所有转轮都停下来的回调接口
+ */
+public interface OnReelsStoppedListener {
+	/**
+	 * 协调器里所有的转轮都停止转动时回调
+	 * @param coordinator the reel coordinator
+	 * @param results the current item of each reel, in registration order
+	 */
+	void onReelsStopped(ReelCoordinator coordinator, int[] results);
+}
@@ -0,0 +1,16 @@
+package kankan.wheel.widget;
+
+/**
+ * 按帧合并的轮子位置监听器。
+ * 快速转动时一帧里当前item可能变化多次，这个监听器每帧最多回调一次。
+ */
+public interface OnWheelBatchChangedListener {
+	/**
+	 * 一帧里当前item变化后回调
+	 * @param wheel the wheel view whose state has changed
+	 * @param firstOld the current item before the first change in this frame
+	 * @param lastNew the current item after the last change in this frame
+	 * @param itemsPassed the count of items passed by the center, negative when the current item decreases
+	 */
+	void onBatchChanged(WheelView wheel, int firstOld, int lastNew, int itemsPassed);
+}
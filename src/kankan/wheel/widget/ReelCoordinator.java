@@ -0,0 +1,211 @@
+package kankan.wheel.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kankan.wheel.widget.core.BaseFrameClock;
+import kankan.wheel.widget.core.Easing;
+import kankan.wheel.widget.core.FrameClock;
+
+/**
+ * 多个转轮的协调器。
+ * 注册的转轮共用一个帧回调，每帧用同一个时间戳推进所有转轮的滚动，
+ * 转轮之间不会错帧；支持依次停下的转动，以及所有转轮停下后的统一回调。
+ */
+public class ReelCoordinator {
+	// 转轮
+	private final List<WheelView> reels = new ArrayList<WheelView>();
+	// 正在转动的转轮
+	private boolean[] spinning = new boolean[0];
+	private int spinningCount;
+	// 停下后的结果
+	private int[] results = new int[0];
+
+	// 所有转轮停下的监听器
+	private final List<OnReelsStoppedListener> stoppedListeners = new ArrayList<OnReelsStoppedListener>();
+
+	// 外部的帧时钟和转轮共用的帧时钟
+	private FrameClock frameClock;
+	private final ReelClock reelClock = new ReelClock();
+
+	/**
+	 * 构造函数，使用跟随屏幕刷新的帧时钟
+	 */
+	public ReelCoordinator() {
+		this(AndroidFrameClock.getInstance());
+	}
+
+	/**
+	 * 构造函数
+	 * @param frameClock the clock the shared frame tick is taken from
+	 */
+	public ReelCoordinator(FrameClock frameClock) {
+		this.frameClock = frameClock;
+	}
+
+	/**
+	 * 添加转轮，转轮改用协调器的帧时钟
+	 * @param reel the wheel to coordinate
+	 */
+	public void addReel(WheelView reel) {
+		if (reels.contains(reel)) {
+			return;
+		}
+		reels.add(reel);
+		reel.setFrameClock(reelClock);
+		reel.addScrollingListener(scrollListener);
+
+		boolean[] grownSpinning = new boolean[reels.size()];
+		System.arraycopy(spinning, 0, grownSpinning, 0, spinning.length);
+		spinning = grownSpinning;
+		results = new int[reels.size()];
+	}
+
+	/**
+	 * 删除转轮，转轮恢复使用外部的帧时钟
+	 * @param reel the wheel to remove
+	 */
+	public void removeReel(WheelView reel) {
+		int index = reels.indexOf(reel);
+		if (index < 0) {
+			return;
+		}
+		reel.removeScrollingListener(scrollListener);
+		reel.setFrameClock(frameClock);
+		reels.remove(index);
+
+		if (spinning[index]) {
+			spinningCount--;
+		}
+		boolean[] shrunkSpinning = new boolean[reels.size()];
+		System.arraycopy(spinning, 0, shrunkSpinning, 0, index);
+		System.arraycopy(spinning, index + 1, shrunkSpinning, index, reels.size() - index);
+		spinning = shrunkSpinning;
+		results = new int[reels.size()];
+	}
+
+	/**
+	 * 获取转轮数目
+	 * @return the count of reels
+	 */
+	public int getReelCount() {
+		return reels.size();
+	}
+
+	/**
+	 * 获取转轮
+	 * @param index the reel index in registration order
+	 * @return the wheel
+	 */
+	public WheelView getReel(int index) {
+		return reels.get(index);
+	}
+
+	/**
+	 * 测试是否有转轮在转动
+	 * @return true if any reel is scrolling
+	 */
+	public boolean isSpinning() {
+		return spinningCount > 0;
+	}
+
+	/**
+	 * 所有转轮一起开始转动，后面的转轮依次晚一些停下。
+	 * 第i个转轮转动durationMs + i * staggerMs毫秒，并多转i * extraRevolutionsStep圈。
+	 * @param targets the item each reel stops at, in registration order
+	 * @param extraRevolutions the full revolutions of the first reel
+	 * @param extraRevolutionsStep the extra revolutions added per reel
+	 * @param durationMs the spin duration of the first reel
+	 * @param staggerMs the delay between reel stops
+	 * @param easing the spin easing, or null for the wheel interpolator
+	 * @return the stop item of each reel, the array is reused by the next call
+	 */
+	public int[] spin(int[] targets, int extraRevolutions, int extraRevolutionsStep,
+			int durationMs, int staggerMs, Easing easing) {
+		int count = Math.min(targets.length, reels.size());
+		for (int i = 0; i < count; i++) {
+			results[i] = reels.get(i).spinTo(targets[i], extraRevolutions + i * extraRevolutionsStep,
+					durationMs + i * staggerMs, easing);
+		}
+		return results;
+	}
+
+	/**
+	 * 停止所有转轮
+	 */
+	public void stop() {
+		for (int i = 0; i < reels.size(); i++) {
+			reels.get(i).stopScrolling();
+		}
+	}
+
+	/**
+	 * 添加所有转轮停下的监听器
+	 * @param listener the listener
+	 */
+	public void addStoppedListener(OnReelsStoppedListener listener) {
+		stoppedListeners.add(listener);
+	}
+
+	/**
+	 * 删除所有转轮停下的监听器
+	 * @param listener the listener
+	 */
+	public void removeStoppedListener(OnReelsStoppedListener listener) {
+		stoppedListeners.remove(listener);
+	}
+
+	/**
+	 * 更新所有转轮停下的监听器
+	 */
+	protected void notifyStoppedListeners() {
+		for (int i = 0; i < reels.size(); i++) {
+			results[i] = reels.get(i).getCurrentItem();
+		}
+		for (int i = 0; i < stoppedListeners.size(); i++) {
+			stoppedListeners.get(i).onReelsStopped(this, results);
+		}
+	}
+
+	// 转轮滚动的监听器，统计转动中的转轮
+	private final OnWheelScrollListener scrollListener = new OnWheelScrollListener() {
+		public void onScrollingStarted(WheelView wheel) {
+			int index = reels.indexOf(wheel);
+			if (index >= 0 && !spinning[index]) {
+				spinning[index] = true;
+				spinningCount++;
+			}
+		}
+
+		public void onScrollingFinished(WheelView wheel) {
+			int index = reels.indexOf(wheel);
+			if (index >= 0 && spinning[index]) {
+				spinning[index] = false;
+				spinningCount--;
+				if (spinningCount == 0) {
+					notifyStoppedListeners();
+				}
+			}
+		}
+	};
+
+	/**
+	 * 转轮共用的帧时钟，向外部时钟只请求一个回调，每帧一起推进所有转轮
+	 */
+	private class ReelClock extends BaseFrameClock implements FrameClock.FrameCallback {
+		@Override
+		protected void scheduleFrame() {
+			frameClock.postFrameCallback(this);
+		}
+
+		@Override
+		protected void cancelFrame() {
+			frameClock.removeFrameCallback(this);
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			dispatchFrame(frameTimeNanos);
+		}
+	}
+}
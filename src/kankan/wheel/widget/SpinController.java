@@ -0,0 +1,287 @@
+package kankan.wheel.widget;
+
+import kankan.wheel.widget.core.Easing;
+
+/**
+ * 转动请求的调度器，放在{@link WheelView#spinTo(int, int, int, Easing)}上面。
+ * 状态只有三种：空闲、转动中、停止中。只有空闲并且没有等待的请求时才会马上开始转动，
+ * 其它请求（转动中，或者停下后排队的请求还没开始）按策略丢弃或者排队，和前一个请求相同的请求直接合并，
+ * 所以一次滑动产生的大量触摸事件不会让轮子反复重新开始转动。
+ * 只在主线程使用。
+ */
+public class SpinController {
+	/** 空闲 */
+	public static final int STATE_IDLE = 0;
+	/** 转动中 */
+	public static final int STATE_SPINNING = 1;
+	/** 已经要求停止，等轮子停下 */
+	public static final int STATE_STOPPING = 2;
+
+	/** 转动中的请求全部丢弃 */
+	public static final int POLICY_IGNORE = 0;
+	/** 转动中只保留最新的一个请求，停下后执行 */
+	public static final int POLICY_KEEP_LATEST = 1;
+	/** 转动中的请求按顺序排队，队列满了后丢弃 */
+	public static final int POLICY_QUEUE = 2;
+
+	/** 默认的队列长度 */
+	public static final int DEF_QUEUE_SIZE = 4;
+
+	// 每个请求在队列里占的int个数：目标、圈数、时间
+	private static final int REQUEST_SIZE = 3;
+
+	// 控制的轮子
+	private final WheelView wheel;
+	// 转动的缓动
+	private Easing easing;
+	// 状态和策略
+	private int state = STATE_IDLE;
+	private int policy;
+
+	// 等待的请求，环形队列
+	private final int[] queue;
+	private final int queueSize;
+	private int queueHead;
+	private int queueCount;
+
+	// 当前转动的请求，用来合并相同的请求
+	private int spinTarget;
+	private int spinRevolutions;
+	private int spinDuration;
+	// 当前转动停下的item
+	private int spinResult = -1;
+
+	// 统计
+	private long requestCount;
+	private long startedCount;
+	private long coalescedCount;
+	private long droppedCount;
+
+	/**
+	 * 构造函数，转动中的请求全部丢弃
+	 * @param wheel the wheel to spin
+	 */
+	public SpinController(WheelView wheel) {
+		this(wheel, POLICY_IGNORE, DEF_QUEUE_SIZE);
+	}
+
+	/**
+	 * 构造函数
+	 * @param wheel the wheel to spin
+	 * @param policy the policy for requests made while spinning
+	 * @param queueSize the maximum count of queued requests for {@link #POLICY_QUEUE}
+	 */
+	public SpinController(WheelView wheel, int policy, int queueSize) {
+		this.wheel = wheel;
+		this.policy = policy;
+		this.queueSize = Math.max(queueSize, 1);
+		this.queue = new int[this.queueSize * REQUEST_SIZE];
+		wheel.addScrollingListener(scrollListener);
+	}
+
+	/**
+	 * 设置转动中的请求的处理策略，已经排队的请求不受影响
+	 * @param policy one of {@link #POLICY_IGNORE}, {@link #POLICY_KEEP_LATEST}, {@link #POLICY_QUEUE}
+	 */
+	public void setPolicy(int policy) {
+		this.policy = policy;
+	}
+
+	/**
+	 * 获取转动中的请求的处理策略
+	 * @return the policy
+	 */
+	public int getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * 设置转动的缓动
+	 * @param easing the spin easing, or null for the wheel interpolator
+	 */
+	public void setEasing(Easing easing) {
+		this.easing = easing;
+	}
+
+	/**
+	 * 获取当前状态
+	 * @return one of {@link #STATE_IDLE}, {@link #STATE_SPINNING}, {@link #STATE_STOPPING}
+	 */
+	public int getState() {
+		return state;
+	}
+
+	/**
+	 * 获取当前转动停下的item
+	 * @return the stop item of the current or last spin, or -1 if there was none
+	 */
+	public int getSpinResult() {
+		return spinResult;
+	}
+
+	/**
+	 * 获取等待的请求数目
+	 * @return the count of queued requests
+	 */
+	public int getQueuedCount() {
+		return queueCount;
+	}
+
+	/**
+	 * 请求转动到指定的item
+	 * @param targetIndex the item to stop at
+	 * @param extraRevolutions the count of full revolutions before stopping
+	 * @param durationMs the spin duration, 0 for the default one
+	 * @return true if the spin is started or queued, false if the request is merged or dropped
+	 */
+	public boolean request(int targetIndex, int extraRevolutions, int durationMs) {
+		requestCount++;
+
+		// 空闲但是还有等待的请求时startNext已经post了，新的请求排在它们后面
+		if (state == STATE_IDLE && queueCount == 0) {
+			return start(targetIndex, extraRevolutions, durationMs);
+		}
+
+		if (state == STATE_STOPPING || policy == POLICY_IGNORE) {
+			droppedCount++;
+			return false;
+		}
+
+		if (isSameAsLast(targetIndex, extraRevolutions, durationMs)) {
+			coalescedCount++;
+			return false;
+		}
+
+		if (policy == POLICY_KEEP_LATEST) {
+			if (queueCount > 0) {
+				// 新的请求替换掉等待的请求
+				coalescedCount++;
+				queueCount = 0;
+			}
+		} else if (queueCount == queueSize) {
+			droppedCount++;
+			return false;
+		}
+
+		int pos = ((queueHead + queueCount) % queueSize) * REQUEST_SIZE;
+		queue[pos] = targetIndex;
+		queue[pos + 1] = extraRevolutions;
+		queue[pos + 2] = durationMs;
+		queueCount++;
+		return true;
+	}
+
+	/**
+	 * 停止转动，丢弃等待的请求，轮子停下之前的请求也会丢弃
+	 */
+	public void stop() {
+		droppedCount += queueCount;
+		queueCount = 0;
+		wheel.removeCallbacks(startNext);
+		if (state == STATE_SPINNING) {
+			state = STATE_STOPPING;
+			wheel.stopScrolling();
+		}
+	}
+
+	/**
+	 * 获取请求的总数
+	 * @return the count of requests
+	 */
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * 获取真正开始的转动次数
+	 * @return the count of started spins
+	 */
+	public long getStartedCount() {
+		return startedCount;
+	}
+
+	/**
+	 * 获取和前一个请求合并掉的请求数目
+	 * @return the count of coalesced requests
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/**
+	 * 获取按策略丢弃的请求数目
+	 * @return the count of dropped requests
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * 清零统计
+	 */
+	public void resetStatistics() {
+		requestCount = 0;
+		startedCount = 0;
+		coalescedCount = 0;
+		droppedCount = 0;
+	}
+
+	/**
+	 * 测试请求是否和最后一个转动或等待的请求相同
+	 */
+	private boolean isSameAsLast(int targetIndex, int extraRevolutions, int durationMs) {
+		if (queueCount > 0) {
+			int pos = ((queueHead + queueCount - 1) % queueSize) * REQUEST_SIZE;
+			return queue[pos] == targetIndex && queue[pos + 1] == extraRevolutions && queue[pos + 2] == durationMs;
+		}
+		return spinTarget == targetIndex && spinRevolutions == extraRevolutions && spinDuration == durationMs;
+	}
+
+	/**
+	 * 开始转动
+	 * @return true if the spin is started
+	 */
+	private boolean start(int targetIndex, int extraRevolutions, int durationMs) {
+		int result = wheel.spinTo(targetIndex, extraRevolutions, durationMs, easing);
+		if (result < 0) {
+			droppedCount++;
+			return false;
+		}
+
+		spinTarget = targetIndex;
+		spinRevolutions = extraRevolutions;
+		spinDuration = durationMs;
+		spinResult = result;
+		startedCount++;
+		state = STATE_SPINNING;
+		return true;
+	}
+
+	// 开始下一个等待的请求。要等轮子的停止回调全部返回后才能开始，所以放到消息队列里
+	private final Runnable startNext = new Runnable() {
+		public void run() {
+			while (state == STATE_IDLE && queueCount > 0) {
+				int pos = queueHead * REQUEST_SIZE;
+				queueHead = (queueHead + 1) % queueSize;
+				queueCount--;
+				start(queue[pos], queue[pos + 1], queue[pos + 2]);
+			}
+		}
+	};
+
+	// 轮子停下后回到空闲状态
+	private final OnWheelScrollListener scrollListener = new OnWheelScrollListener() {
+		public void onScrollingStarted(WheelView wheel) {
+		}
+
+		public void onScrollingFinished(WheelView wheel) {
+			if (state == STATE_IDLE) {
+				return;
+			}
+			state = STATE_IDLE;
+			if (queueCount > 0) {
+				wheel.post(startNext);
+			}
+		}
+	};
+}
@@ -0,0 +1,20 @@
+package kankan.wheel.widget;
+
+import kankan.wheel.widget.core.RingPool;
+import android.view.View;
+
+/**
+ * Fixed-capacity ring buffer of recycled views.
+ * Views are taken in the order they were put, the oldest view is evicted
+ * when the pool is full. Hit, miss and eviction counters are kept to check
+ * that the pool is large enough to avoid inflating new views.
+ */
+public class ViewPool extends RingPool<View> {
+	/**
+	 * Constructor
+	 * @param maxSize the maximum count of pooled views
+	 */
+	public ViewPool(int maxSize) {
+		super(maxSize);
+	}
+}
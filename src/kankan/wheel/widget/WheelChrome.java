@@ -0,0 +1,153 @@
+package kankan.wheel.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+
+/**
+ * 轮子不随滚动变化的背景、中心线和阴影。
+ * 这些Drawable预先合成到两张缓存图上：背景画在item下面，中心线和阴影画在item上面，
+ * 每帧只需要两次drawBitmap。轮子的尺寸或item高度变化时才重新合成。
+ * 只在主线程使用。
+ */
+class WheelChrome {
+	// 原始的Drawable
+	private final Drawable background;
+	private final Drawable centerDrawable;
+	private final Drawable topShadow;
+	private final Drawable bottomShadow;
+
+	// 合成好的缓存图
+	private Bitmap underLayer;
+	private Bitmap overLayer;
+	// 缓存图对应的尺寸，尺寸变化后需要重新合成
+	private int layerWidth;
+	private int layerHeight;
+	private int layerItemHeight;
+	private boolean layerHasCenter;
+	// 内存不够时不再尝试缓存，直接画Drawable
+	private boolean cacheDisabled;
+
+	/**
+	 * 构造函数
+	 * @param background the wheel background, may be null
+	 * @param centerDrawable the center highlight
+	 * @param topShadow the top shadow
+	 * @param bottomShadow the bottom shadow
+	 */
+	WheelChrome(Drawable background, Drawable centerDrawable, Drawable topShadow, Drawable bottomShadow) {
+		this.background = background;
+		this.centerDrawable = centerDrawable;
+		this.topShadow = topShadow;
+		this.bottomShadow = bottomShadow;
+	}
+
+	/**
+	 * 画出item下面的背景
+	 * @param canvas the canvas for drawing
+	 * @param width the wheel width
+	 * @param height the wheel height
+	 * @param itemHeight the item height
+	 * @param hasCenter whether the center highlight is drawn over the items
+	 */
+	void drawUnder(Canvas canvas, int width, int height, int itemHeight, boolean hasCenter) {
+		if (prepareLayers(width, height, itemHeight, hasCenter)) {
+			canvas.drawBitmap(underLayer, 0, 0, null);
+		} else {
+			drawBackground(canvas, width, height);
+		}
+	}
+
+	/**
+	 * 画出item上面的中心线和阴影
+	 * @param canvas the canvas for drawing
+	 * @param width the wheel width
+	 * @param height the wheel height
+	 * @param itemHeight the item height
+	 * @param hasCenter whether the center highlight is drawn
+	 */
+	void drawOver(Canvas canvas, int width, int height, int itemHeight, boolean hasCenter) {
+		if (prepareLayers(width, height, itemHeight, hasCenter)) {
+			canvas.drawBitmap(overLayer, 0, 0, null);
+		} else {
+			drawOverlay(canvas, width, height, itemHeight, hasCenter);
+		}
+	}
+
+	/**
+	 * 释放缓存图，下次绘制时重新合成
+	 */
+	void release() {
+		if (underLayer != null) {
+			underLayer.recycle();
+			underLayer = null;
+		}
+		if (overLayer != null) {
+			overLayer.recycle();
+			overLayer = null;
+		}
+	}
+
+	/**
+	 * 尺寸变化时重新合成缓存图
+	 * @return true if the cached layers can be used
+	 */
+	private boolean prepareLayers(int width, int height, int itemHeight, boolean hasCenter) {
+		if (cacheDisabled || width <= 0 || height <= 0) {
+			return false;
+		}
+
+		if (underLayer != null && width == layerWidth && height == layerHeight
+				&& itemHeight == layerItemHeight && hasCenter == layerHasCenter) {
+			return true;
+		}
+
+		release();
+		try {
+			underLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+			overLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+		} catch (OutOfMemoryError e) {
+			release();
+			cacheDisabled = true;
+			return false;
+		}
+
+		drawBackground(new Canvas(underLayer), width, height);
+		drawOverlay(new Canvas(overLayer), width, height, itemHeight, hasCenter);
+
+		layerWidth = width;
+		layerHeight = height;
+		layerItemHeight = itemHeight;
+		layerHasCenter = hasCenter;
+		return true;
+	}
+
+	/**
+	 * 画出背景
+	 */
+	private void drawBackground(Canvas canvas, int width, int height) {
+		if (background != null) {
+			background.setBounds(0, 0, width, height);
+			background.draw(canvas);
+		}
+	}
+
+	/**
+	 * 画出中心线和头尾的阴影
+	 */
+	private void drawOverlay(Canvas canvas, int width, int height, int itemHeight, boolean hasCenter) {
+		if (hasCenter) {
+			int center = height / 2;
+			int offset = (int) (itemHeight / 2 * 1.2);
+			centerDrawable.setBounds(0, center - offset, width, center + offset);
+			centerDrawable.draw(canvas);
+		}
+
+		int shadowHeight = (int)(1.5 * itemHeight);
+		topShadow.setBounds(0, 0, width, shadowHeight);
+		topShadow.draw(canvas);
+
+		bottomShadow.setBounds(0, height - shadowHeight, width, height);
+		bottomShadow.draw(canvas);
+	}
+}
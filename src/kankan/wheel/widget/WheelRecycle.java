@@ -19,9 +19,6 @@
 
 package kankan.wheel.widget;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import android.view.View;
 import android.widget.LinearLayout;
 
@@ -29,48 +26,74 @@ import android.widget.LinearLayout;
  * Recycle stores wheel items to reuse. 
  */
 public class WheelRecycle {
+	/** Count of items cached above the visible items count by default */
+	public static final int DEF_OVERSCAN = 3;
+
 	// Cached items
-	private List<View> items;
+	private ViewPool items;
 	
 	// Cached empty items
-	private List<View> emptyItems;
+	private ViewPool emptyItems;
 	
 	// Wheel view
 	private WheelView wheel;
 	
 	/**
-	 * Constructor
+	 * Constructor. Pool size is the wheel visible items count plus overscan.
 	 * @param wheel the wheel view
 	 */
 	public WheelRecycle(WheelView wheel) {
+		this(wheel, wheel.getVisibleItems() + DEF_OVERSCAN);
+	}
+
+	/**
+	 * Constructor
+	 * @param wheel the wheel view
+	 * @param maxSize the maximum count of cached views per pool
+	 */
+	public WheelRecycle(WheelView wheel, int maxSize) {
 		this.wheel = wheel;
+		items = new ViewPool(maxSize);
+		emptyItems = new ViewPool(maxSize);
+	}
+
+	/**
+	 * Sets the maximum count of cached views per pool
+	 * @param maxSize the pool capacity
+	 */
+	public void setMaxSize(int maxSize) {
+		items.setMaxSize(maxSize);
+		emptyItems.setMaxSize(maxSize);
+	}
+
+	/**
+	 * Gets pool of item views, for statistics
+	 * @return the item views pool
+	 */
+	public ViewPool getItemPool() {
+		return items;
+	}
+
+	/**
+	 * Gets pool of empty item views, for statistics
+	 * @return the empty views pool
+	 */
+	public ViewPool getEmptyItemPool() {
+		return emptyItems;
 	}
 
 	/**
-	 * Recycles items from specified layout.
-	 * There are saved only items not included to specified range.
-	 * All the cached items are removed from original layout.
+	 * Recycles item from specified layout.
+	 * The cached item is removed from original layout,
+	 * which items are recycled is decided by WheelItems.
 	 * 
-	 * @param layout the layout containing items to be cached
-	 * @param firstItem the number of first item in layout
-	 * @param range the range of current wheel items 
-	 * @return the new value of first item number
+	 * @param layout the layout containing the item to be cached
+	 * @param position the position of the item in layout
+	 * @param index the index of the item
 	 */
-	public int recycleItems(LinearLayout layout, int firstItem, ItemsRange range) {
-		int index = firstItem;
-		for (int i = 0; i < layout.getChildCount();) {
-			if (!range.contains(index)) {
-				recycleView(layout.getChildAt(i), index);
-				layout.removeViewAt(i);
-				if (i == 0) { // first item
-					firstItem++;
-				}
-			} else {
-				i++; // go to next item
-			}
-			index++;
-		}
-		return firstItem;
+	public void recycleItem(LinearLayout layout, int position, int index) {
+		recycleView(layout.getChildAt(position), index);
+		layout.removeViewAt(position);
 	}
 	
 	/**
@@ -78,7 +101,7 @@ public class WheelRecycle {
 	 * @return the cached view
 	 */
 	public View getItem() {
-		return getCachedView(items);
+		return items.take();
 	}
 
 	/**
@@ -86,34 +109,15 @@ public class WheelRecycle {
 	 * @return the cached empty view
 	 */
 	public View getEmptyItem() {
-		return getCachedView(emptyItems);
+		return emptyItems.take();
 	}
 	
 	/**
 	 * Clears all views 
 	 */
 	public void clearAll() {
-		if (items != null) {
-			items.clear();
-		}
-		if (emptyItems != null) {
-			emptyItems.clear();
-		}
-	}
-
-	/**
-	 * Adds view to specified cache. Creates a cache list if it is null.
-	 * @param view the view to be cached
-	 * @param cache the cache list
-	 * @return the cache list
-	 */
-	private List<View> addView(View view, List<View> cache) {
-		if (cache == null) {
-			cache = new LinkedList<View>();
-		}
-		
-		cache.add(view);
-		return cache;
+		items.clear();
+		emptyItems.clear();
 	}
 
 	/**
@@ -122,32 +126,12 @@ public class WheelRecycle {
 	 * @param index the index of view
 	 */
 	private void recycleView(View view, int index) {
-		int count = wheel.getViewAdapter().getItemsCount();
-
-		if ((index < 0 || index >= count) && !wheel.isCyclic()) {
+		if (!wheel.isValidItemIndex(index)) {
 			// empty view
-			emptyItems = addView(view, emptyItems);
+			emptyItems.put(view);
 		} else {
-			while (index < 0) {
-				index = count + index;
-			}
-			index %= count;
-			items = addView(view, items);
-		}
-	}
-	
-	/**
-	 * Gets view from specified cache.
-	 * @param cache the cache
-	 * @return the first view from cache.
-	 */
-	private View getCachedView(List<View> cache) {
-		if (cache != null && cache.size() > 0) {
-			View view = cache.get(0);
-			cache.remove(0);
-			return view;
+			items.put(view);
 		}
-		return null;
 	}
 
 }
@@ -19,63 +19,45 @@
 
 package kankan.wheel.widget;
 
+import kankan.wheel.widget.core.Easing;
+import kankan.wheel.widget.core.FrameClock;
+import kankan.wheel.widget.core.ScrollEngine;
+import kankan.wheel.widget.core.ScrollPhysics;
+import kankan.wheel.widget.core.WheelMetrics;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Message;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.GestureDetector.SimpleOnGestureListener;
+import android.view.ViewConfiguration;
 import android.view.animation.Interpolator;
-import android.widget.Scroller;
 
 /**
- * Scroller class handles scrolling events and updates the 
+ * Scroller class handles scrolling events and updates the wheel.
+ * Scrolling physics and the scroll/justify state machine are kept by
+ * {@link ScrollEngine}, this class feeds it with touch events and frames.
  */
 public class WheelScroller {
     /**
      * Scrolling listener interface
      */
-    public interface ScrollingListener {
-        /**
-         * Scrolling callback called when scrolling is performed.
-         * @param distance the distance to scroll
-         */
-        void onScroll(int distance);
-
-        /**
-         * Starting callback called when scrolling is started
-         */
-        void onStarted();
-        
-        /**
-         * Finishing callback called after justifying
-         */
-        void onFinished();
-        
-        /**
-         * Justifying callback called to justify a view when scrolling is ended
-         */
-        void onJustify();
+    public interface ScrollingListener extends ScrollEngine.Listener {
     }
     
-    /** Scrolling duration */
-    private static final int SCROLLING_DURATION = 400;
-
     /** Minimum delta for scrolling */
-    public static final int MIN_DELTA_FOR_SCROLLING = 1;
+    public static final int MIN_DELTA_FOR_SCROLLING = ScrollEngine.MIN_DELTA_FOR_SCROLLING;
 
-    // Listener
-    private ScrollingListener listener;
-    
-    // Context
-    private Context context;
-    
     // Scrolling
     private GestureDetector gestureDetector;
-    private Scroller scroller;
-    private int lastScrollY;
+    private ScrollEngine engine;
     private float lastTouchedY;
-    private boolean isScrollingPerformed;
+
+    // Animation frames
+    private FrameClock frameClock = AndroidFrameClock.getInstance();
+    private long lastFrameTimeNanos;
+    private boolean isAnimationPosted;
+
+    // Metrics, may be null
+    private WheelMetrics metrics;
 
     /**
      * Constructor
@@ -86,42 +68,118 @@ public class WheelScroller {
         gestureDetector = new GestureDetector(context, gestureListener);
         gestureDetector.setIsLongpressEnabled(false);
         
-        scroller = new Scroller(context);
-
-        this.listener = listener;
-        this.context = context;
+        float ppi = context.getResources().getDisplayMetrics().density * 160.0f;
+        engine = new ScrollEngine(listener,
+                ScrollPhysics.computeDeceleration(ppi, ViewConfiguration.getScrollFriction()));
     }
     
     /**
      * Set the the specified scrolling interpolator
      * @param interpolator the interpolator
      */
-    public void setInterpolator(Interpolator interpolator) {
-        scroller.forceFinished(true);
-        scroller = new Scroller(context, interpolator);
+    public void setInterpolator(final Interpolator interpolator) {
+        setEasing(interpolator == null ? null : new Easing() {
+            public float getInterpolation(float input) {
+                return interpolator.getInterpolation(input);
+            }
+        });
     }
-    
+
+    /**
+     * Set the the specified scrolling easing
+     * @param easing the easing, or null for the default one
+     */
+    public void setEasing(Easing easing) {
+        engine.setEasing(easing);
+    }
+
+    /**
+     * Get scrolling engine
+     * @return the scroll engine
+     */
+    public ScrollEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Set the frame clock driving scrolling animation.
+     * By default the shared display frame clock is used.
+     * @param frameClock the frame clock
+     */
+    public void setFrameClock(FrameClock frameClock) {
+        boolean posted = isAnimationPosted;
+        clearAnimation();
+        this.frameClock = frameClock;
+        if (posted) {
+            setNextAnimation();
+        }
+    }
+
+    /**
+     * Get the frame clock driving scrolling animation
+     * @return the frame clock
+     */
+    public FrameClock getFrameClock() {
+        return frameClock;
+    }
+
+    /**
+     * Set metrics recording animation steps
+     * @param metrics the metrics, or null to record nothing
+     */
+    public void setMetrics(WheelMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the time of the last animation frame
+     * @return the frame time in nanoseconds, or 0 if no frame was handled yet
+     */
+    public long getLastFrameTimeNanos() {
+        return lastFrameTimeNanos;
+    }
+
+    /**
+     * Get current scrolling velocity
+     * @return the velocity in pixels per second as of the last frame
+     */
+    public float getCurrentVelocity() {
+        return engine.getVelocity(lastFrameTimeNanos / 1000000L);
+    }
+
     /**
      * Scroll the wheel
      * @param distance the scrolling distance
      * @param time the scrolling duration
      */
     public void scroll(int distance, int time) {
-        scroller.forceFinished(true);
+        scroll(distance, time, null);
+    }
 
-        lastScrollY = 0;
-        
-        scroller.startScroll(0, 0, 0, distance, time != 0 ? time : SCROLLING_DURATION);
-        setNextMessage(MESSAGE_SCROLL);
-        
-        startScrolling();
+    /**
+     * Scroll the wheel with the specified easing
+     * @param distance the scrolling distance
+     * @param time the scrolling duration
+     * @param easing the easing of this scroll, or null for the default one
+     */
+    public void scroll(int distance, int time, Easing easing) {
+        engine.scroll(distance, time, easing);
+        setNextAnimation();
+    }
+
+    /**
+     * Justify the wheel by the specified offset
+     * @param offset the offset from the nearest item
+     */
+    public void snapBack(int offset) {
+        engine.snapBack(offset);
     }
    
     /**
      * Stops scrolling
      */
     public void stopScrolling() {
-        scroller.forceFinished(true);
+        engine.stopScrolling();
     }
     
     /**
@@ -133,16 +191,15 @@ public class WheelScroller {
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
                 lastTouchedY = event.getY();
-                scroller.forceFinished(true);
-                clearMessages();
+                engine.touchDown();
+                clearAnimation();
                 break;
     
             case MotionEvent.ACTION_MOVE:
                 // perform scrolling
                 int distanceY = (int)(event.getY() - lastTouchedY);
                 if (distanceY != 0) {
-                    startScrolling();
-                    listener.onScroll(distanceY);
+                    engine.touchScroll(distanceY);
                     lastTouchedY = event.getY();
                 }
                 break;
@@ -164,60 +221,42 @@ public class WheelScroller {
         }
         
         public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            lastScrollY = 0;
-            final int maxY = 0x7FFFFFFF;
-            final int minY = -maxY;
-            scroller.fling(0, lastScrollY, 0, (int) -velocityY, 0, 0, minY, maxY);
-            setNextMessage(MESSAGE_SCROLL);
+            engine.fling((int) -velocityY);
+            setNextAnimation();
             return true;
         }
     };
 
-    // Messages
-    private final int MESSAGE_SCROLL = 0;
-    private final int MESSAGE_JUSTIFY = 1;
-    
     /**
-     * Set next message to queue. Clears queue before.
-     * 
-     * @param message the message to set
+     * Request the next animation frame
      */
-    private void setNextMessage(int message) {
-        clearMessages();
-        animationHandler.sendEmptyMessage(message);
+    private void setNextAnimation() {
+        if (!isAnimationPosted) {
+            isAnimationPosted = true;
+            frameClock.postFrameCallback(animationCallback);
+        }
     }
 
     /**
-     * Clears messages from queue
+     * Clears pending animation frame
      */
-    private void clearMessages() {
-        animationHandler.removeMessages(MESSAGE_SCROLL);
-        animationHandler.removeMessages(MESSAGE_JUSTIFY);
+    private void clearAnimation() {
+        isAnimationPosted = false;
+        frameClock.removeFrameCallback(animationCallback);
     }
     
-    // animation handler
-    private Handler animationHandler = new Handler() {
-        public void handleMessage(Message msg) {
-            scroller.computeScrollOffset();
-            int currY = scroller.getCurrY();
-            int delta = lastScrollY - currY;
-            lastScrollY = currY;
-            if (delta != 0) {
-                listener.onScroll(delta);
+    // animation frame callback, steps the animation once per display frame
+    private FrameClock.FrameCallback animationCallback = new FrameClock.FrameCallback() {
+        public void doFrame(long frameTimeNanos) {
+            lastFrameTimeNanos = frameTimeNanos;
+            isAnimationPosted = false;
+            if (metrics != null) {
+                metrics.recordStep(frameTimeNanos);
             }
-            
-            // scrolling is not finished when it comes to final Y
-            // so, finish it manually 
-            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
-                currY = scroller.getFinalY();
-                scroller.forceFinished(true);
-            }
-            if (!scroller.isFinished()) {
-                animationHandler.sendEmptyMessage(msg.what);
-            } else if (msg.what == MESSAGE_SCROLL) {
-                justify();
-            } else {
-                finishScrolling();
+            if (engine.step(frameTimeNanos / 1000000L)) {
+                setNextAnimation();
+            } else if (metrics != null) {
+                metrics.recordSpinEnd();
             }
         }
     };
@@ -226,27 +265,14 @@ public class WheelScroller {
      * Justifies wheel
      */
     private void justify() {
-        listener.onJustify();
-        setNextMessage(MESSAGE_JUSTIFY);
-    }
-
-    /**
-     * Starts scrolling
-     */
-    private void startScrolling() {
-        if (!isScrollingPerformed) {
-            isScrollingPerformed = true;
-            listener.onStarted();
-        }
+        engine.justify();
+        setNextAnimation();
     }
 
     /**
      * Finishes scrolling
      */
     void finishScrolling() {
-        if (isScrollingPerformed) {
-            listener.onFinished();
-            isScrollingPerformed = false;
-        }
+        engine.finishScrolling();
     }
 }
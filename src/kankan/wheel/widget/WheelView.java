@@ -1,15 +1,23 @@
 package kankan.wheel.widget;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.example.aa.R;
 
+import kankan.wheel.widget.adapters.LevelOfDetailRenderer;
+import kankan.wheel.widget.adapters.WheelItemRenderer;
+import kankan.wheel.widget.adapters.WheelStripRenderer;
 import kankan.wheel.widget.adapters.WheelViewAdapter;
+import kankan.wheel.widget.core.Easing;
+import kankan.wheel.widget.core.FrameClock;
+import kankan.wheel.widget.core.WheelGeometry;
+import kankan.wheel.widget.core.WheelItems;
+import kankan.wheel.widget.core.WheelPosition;
+import kankan.wheel.widget.core.WheelMetrics;
 import android.content.Context;
 import android.database.DataSetObserver;
 import android.graphics.Canvas;
-import android.graphics.drawable.Drawable;
+import android.content.res.Resources;
 import android.graphics.drawable.GradientDrawable;
 import android.graphics.drawable.GradientDrawable.Orientation;
 import android.util.AttributeSet;
@@ -43,31 +51,90 @@ public class WheelView extends View {
 	private int visibleItems = DEF_VISIBLE_ITEMS;
 	// 车轮每个item的高度
 	private int itemHeight = 0;
-	// 中心线
-	private Drawable centerDrawable;
-	// 斜影
-	private GradientDrawable topShadow;
-	private GradientDrawable bottomShadow;
+	// 声明的固定item大小，不为0时测量不需要创建item
+	private int fixedItemWidth;
+	private int fixedItemHeight;
+	// 测量结果的缓存，测量参数、数据版本和可见item数都不变时直接使用
+	private int dataVersion;
+	private boolean hasMeasureCache;
+	private int cachedWidthSpec;
+	private int cachedHeightSpec;
+	private int cachedDataVersion;
+	private int cachedVisibleItems;
+	private int cachedWidth;
+	private int cachedHeight;
+	// 背景、中心线和斜影，合成好的缓存
+	private WheelChrome chrome;
 	
 	// 滚动需要的工具和标志
 	private WheelScroller scroller;
     private boolean isScrollingPerformed; 
     private int scrollingOffset;
+    // 正在应用累计的滚动，期间不再请求重绘
+    private boolean isApplyingScroll;
 
 	// 是否循环
 	boolean isCyclic = false;
 	// item的布局
 	private LinearLayout itemsLayout;
-	// 在布局中的第一个item
-	private int firstItem;
+	// item布局的参数，只创建一次
+	private final LayoutParams itemsLayoutParams = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+	// 可见item的范围，每帧复用，避免滚动时分配对象
+	private final ItemsRange itemsRange = new ItemsRange();
+	// 位置计算，每次使用前更新尺寸
+	private final WheelGeometry geometry = new WheelGeometry();
+	// 不受item数目限制的虚拟位置，长时间转动也不会变慢
+	private final WheelPosition position = new WheelPosition();
+	// 布局中的item和本帧累计还没有应用的滚动距离，和HeadlessWheel共用
+	private final WheelItems items = new WheelItems(new WheelItems.Callback() {
+		public boolean addItem(int index, boolean first) {
+			return addViewItem(index, first);
+		}
+
+		public void removeItem(int position, int index) {
+			recycle.recycleItem(itemsLayout, position, index);
+		}
+
+		public void onItemScrolled(int item, int itemsPassed) {
+			scrollItemsPassed = itemsPassed;
+			setCurrentItem(item, false);
+		}
+
+		public void onScrollClamped() {
+			scroller.stopScrolling();
+		}
+	});
 	// 车轮适配器
 	private WheelViewAdapter viewAdapter;
+	// 直接绘制item的渲染器，不为空时不使用itemsLayout
+	private WheelItemRenderer itemRenderer;
+	// 切换细节级别的速度阈值，每秒item数，从小到大
+	private float[] levelOfDetailThresholds;
+	// 当前的细节级别
+	private int levelOfDetail;
 	// 车轮循环
 	private WheelRecycle recycle = new WheelRecycle(this);
-	// 车轮监听器（车轮当前值改变的监听器，滚动监听器，点击监听器）
-	private List<OnWheelChangedListener> changingListeners = new LinkedList<OnWheelChangedListener>();
-	private List<OnWheelScrollListener> scrollingListeners = new LinkedList<OnWheelScrollListener>();
-    private List<OnWheelClickedListener> clickingListeners = new LinkedList<OnWheelClickedListener>();
+	// 性能统计，默认不记录
+	private final WheelMetrics metrics = new WheelMetrics();
+	// 车轮监听器（车轮当前值改变的监听器，按帧合并的改变监听器，滚动监听器，点击监听器）
+	// 写时复制，通知时遍历快照，不分配对象
+	private final ListenerList<OnWheelChangedListener> changingListeners = new ListenerList<OnWheelChangedListener>();
+	private final ListenerList<OnWheelBatchChangedListener> batchChangingListeners = new ListenerList<OnWheelBatchChangedListener>();
+	private final ListenerList<OnWheelScrollListener> scrollingListeners = new ListenerList<OnWheelScrollListener>();
+    private final ListenerList<OnWheelClickedListener> clickingListeners = new ListenerList<OnWheelClickedListener>();
+    // 本帧合并的改变，绘制时通知一次
+    private boolean hasBatchChange;
+    private int batchFirstOld;
+    private int batchLastNew;
+    private int batchItemsPassed;
+    // 正在应用的滚动经过的item数目
+    private int scrollItemsPassed;
+    // 绘制中改变的当前值，绘制后再通知，免得监听器在onDraw里请求布局
+    private boolean isDrawing;
+    private boolean hasDeferredChange;
+    private int deferredOld;
+    private int deferredNew;
+    private boolean isAfterDrawPosted;
 
 	/**
 	 * 构造函数
@@ -91,6 +158,7 @@ public class WheelView extends View {
 	 */
 	private void initData(Context context) {
 	    scroller = new WheelScroller(getContext(), scrollingListener);
+	    scroller.setMetrics(metrics);
 	}
 	
 	// 轮子滚动的监听
@@ -100,19 +168,16 @@ public class WheelView extends View {
             notifyScrollingListenersAboutStart();//更新当前已经开始滚动
         }
         
-        public void onScroll(int distance) {//轮子转动过程中
-            doScroll(distance);
-            int height = getHeight();
-            if (scrollingOffset > height) {
-                scrollingOffset = height;
-                scroller.stopScrolling();
-            } else if (scrollingOffset < -height) {
-                scrollingOffset = -height;
-                scroller.stopScrolling();
+        public void onScroll(int distance) {//轮子转动过程中，先累计，绘制前一起应用
+            if (items.addScroll(distance)) {
+                invalidate();
             }
         }
         
         public void onFinished() {//轮子转动完成后
+            applyPendingScroll();
+            flushDeferredChange();
+            notifyBatchChangingListeners();
             if (isScrollingPerformed) {
                 notifyScrollingListenersAboutEnd();
                 isScrollingPerformed = false;
@@ -122,9 +187,8 @@ public class WheelView extends View {
         }
 
         public void onJustify() {//轮子停止的调整
-            if (Math.abs(scrollingOffset) > WheelScroller.MIN_DELTA_FOR_SCROLLING) {
-                scroller.scroll(scrollingOffset, 0);
-            }
+            applyPendingScroll();
+            scroller.snapBack(scrollingOffset);
         }
     };
 	
@@ -135,6 +199,14 @@ public class WheelView extends View {
 	public void setInterpolator(Interpolator interpolator) {
 		scroller.setInterpolator(interpolator);
 	}
+
+	/**
+	 * 设置驱动滚动动画的帧时钟，默认跟随屏幕刷新
+	 * @param frameClock the frame clock
+	 */
+	public void setFrameClock(FrameClock frameClock) {
+		scroller.setFrameClock(frameClock);
+	}
 	
 	/**
 	 * 获取可见的的item
@@ -150,6 +222,45 @@ public class WheelView extends View {
 	 */
 	public void setVisibleItems(int count) {
 		visibleItems = count;
+		recycle.setMaxSize(count + WheelRecycle.DEF_OVERSCAN);
+	}
+
+	/**
+	 * 声明所有item的固定大小。声明后测量直接按这个大小计算，不再创建和测量item的View
+	 * @param width the item width, 0 to measure items again
+	 * @param height the item height, 0 to measure items again
+	 */
+	public void setFixedItemSize(int width, int height) {
+		fixedItemWidth = width;
+		fixedItemHeight = height;
+		itemHeight = height;
+		invalidateWheel(false);
+		requestLayout();
+	}
+
+	/**
+	 * 获取性能统计，调用{@link WheelMetrics#setEnabled(boolean)}后开始记录
+	 * @return the wheel metrics
+	 */
+	public WheelMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * 获取性能统计的快照，包括item缓存的命中统计，可以上报或者比较不同版本
+	 * @return the metrics snapshot
+	 */
+	public WheelMetrics.Snapshot getMetricsSnapshot() {
+		ViewPool pool = recycle.getItemPool();
+		return metrics.snapshot(pool.getHits(), pool.getMisses());
+	}
+
+	/**
+	 * 获取item的缓存，可以调整缓存大小和读取命中统计
+	 * @return the wheel recycle
+	 */
+	public WheelRecycle getRecycle() {
+		return recycle;
 	}
 
 	/**
@@ -188,6 +299,51 @@ public class WheelView extends View {
         
         invalidateWheel(true);
 	}
+
+	/**
+	 * 获取直接绘制item的渲染器
+	 * @return the item renderer or null if items are drawn by views
+	 */
+	public WheelItemRenderer getItemRenderer() {
+		return itemRenderer;
+	}
+
+	/**
+	 * 设置直接绘制item的渲染器。
+	 * 设置后item直接画到Canvas上，不再创建item的View，滚动时不会有measure和layout；
+	 * 设为null则恢复使用适配器的View。
+	 * @param itemRenderer the item renderer or null
+	 */
+	public void setItemRenderer(WheelItemRenderer itemRenderer) {
+		this.itemRenderer = itemRenderer;
+		levelOfDetail = 0;
+		if (itemRenderer != null) {
+			itemHeight = itemRenderer.getItemHeight();
+		} else {
+			itemHeight = fixedItemHeight;
+		}
+
+		invalidateWheel(true);
+		requestLayout();
+	}
+	
+	/**
+	 * 设置按滚动速度降低细节的阈值，渲染器实现了{@link LevelOfDetailRenderer}时生效。
+	 * 速度超过第i个阈值时使用第i+1级细节，转慢下来后切回原图。
+	 * @param thresholds the velocities in items per second, ascending, or null to always draw full detail
+	 */
+	public void setLevelOfDetailThresholds(float[] thresholds) {
+		levelOfDetailThresholds = thresholds;
+		invalidate();
+	}
+
+	/**
+	 * 获取当前的细节级别
+	 * @return the level of detail, 0 for full detail
+	 */
+	public int getLevelOfDetail() {
+		return levelOfDetail;
+	}
 	
 	/**
 	 * 添加车轮item在最前位置监听器
@@ -197,6 +353,16 @@ public class WheelView extends View {
 		changingListeners.add(listener);
 	}
 
+	/**
+	 * 添加在指定Executor上回调的车轮item在最前位置监听器，
+	 * 回调比较耗时的监听器（声音，统计）不占用主线程的帧时间
+	 * @param listener the listener
+	 * @param executor the executor to call the listener on
+	 */
+	public void addChangingListener(OnWheelChangedListener listener, Executor executor) {
+		changingListeners.add(listener, executor);
+	}
+
 	/**
 	 * 删除车轮item在最前位置监听器
 	 * @param listener the listener
@@ -210,9 +376,141 @@ public class WheelView extends View {
 	 * @param oldValue the old wheel value
 	 * @param newValue the new wheel value
 	 */
-	protected void notifyChangingListeners(int oldValue, int newValue) {
-		for (OnWheelChangedListener listener : changingListeners) {
-			listener.onChanged(this, oldValue, newValue);
+	protected void notifyChangingListeners(final int oldValue, final int newValue) {
+		Object[] listeners = changingListeners.snapshot();
+		for (int i = 0; i < ListenerList.size(listeners); i++) {
+			final OnWheelChangedListener listener = changingListeners.get(listeners, i);
+			Executor executor = ListenerList.getExecutor(listeners, i);
+			if (executor == null) {
+				listener.onChanged(this, oldValue, newValue);
+			} else {
+				executor.execute(new Runnable() {
+					public void run() {
+						listener.onChanged(WheelView.this, oldValue, newValue);
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * 添加按帧合并的车轮item改变监听器
+	 * @param listener the listener
+	 */
+	public void addBatchChangingListener(OnWheelBatchChangedListener listener) {
+		batchChangingListeners.add(listener);
+	}
+
+	/**
+	 * 添加在指定Executor上回调的按帧合并的车轮item改变监听器
+	 * @param listener the listener
+	 * @param executor the executor to call the listener on
+	 */
+	public void addBatchChangingListener(OnWheelBatchChangedListener listener, Executor executor) {
+		batchChangingListeners.add(listener, executor);
+	}
+
+	/**
+	 * 删除按帧合并的车轮item改变监听器
+	 * @param listener the listener
+	 */
+	public void removeBatchChangingListener(OnWheelBatchChangedListener listener) {
+		batchChangingListeners.remove(listener);
+	}
+
+	/**
+	 * 记录一次item改变，和本帧之前的改变合并
+	 * @param oldValue the old wheel value
+	 * @param newValue the new wheel value
+	 * @param itemsPassed the count of items passed, negative when the value decreases
+	 */
+	private void addBatchChange(int oldValue, int newValue, int itemsPassed) {
+		if (batchChangingListeners.size() == 0) {
+			return;
+		}
+		if (!hasBatchChange) {
+			hasBatchChange = true;
+			batchFirstOld = oldValue;
+			batchItemsPassed = 0;
+		}
+		batchLastNew = newValue;
+		batchItemsPassed += itemsPassed;
+	}
+
+	/**
+	 * 通知item改变，绘制中的改变放到绘制之后通知。
+	 * 一次绘制只应用一次滚动，最多改变一次当前值。
+	 * @param oldValue the old wheel value
+	 * @param newValue the new wheel value
+	 */
+	private void dispatchChange(int oldValue, int newValue) {
+		if (isDrawing) {
+			if (!hasDeferredChange) {
+				hasDeferredChange = true;
+				deferredOld = oldValue;
+			}
+			deferredNew = newValue;
+			postAfterDraw();
+		} else {
+			flushDeferredChange();
+			notifyChangingListeners(oldValue, newValue);
+		}
+	}
+
+	/**
+	 * 通知绘制中推迟的item改变，保持和之后的改变的顺序
+	 */
+	private void flushDeferredChange() {
+		if (hasDeferredChange) {
+			hasDeferredChange = false;
+			notifyChangingListeners(deferredOld, deferredNew);
+		}
+	}
+
+	/**
+	 * 绘制结束后通知推迟的改变
+	 */
+	private void postAfterDraw() {
+		if (!isAfterDrawPosted) {
+			isAfterDrawPosted = true;
+			post(afterDraw);
+		}
+	}
+
+	// 绘制之后通知监听器
+	private final Runnable afterDraw = new Runnable() {
+		public void run() {
+			isAfterDrawPosted = false;
+			flushDeferredChange();
+			notifyBatchChangingListeners();
+		}
+	};
+
+	/**
+	 * 通知本帧合并的item改变
+	 */
+	protected void notifyBatchChangingListeners() {
+		if (!hasBatchChange) {
+			return;
+		}
+		hasBatchChange = false;
+
+		final int firstOld = batchFirstOld;
+		final int lastNew = batchLastNew;
+		final int itemsPassed = batchItemsPassed;
+		Object[] listeners = batchChangingListeners.snapshot();
+		for (int i = 0; i < ListenerList.size(listeners); i++) {
+			final OnWheelBatchChangedListener listener = batchChangingListeners.get(listeners, i);
+			Executor executor = ListenerList.getExecutor(listeners, i);
+			if (executor == null) {
+				listener.onBatchChanged(this, firstOld, lastNew, itemsPassed);
+			} else {
+				executor.execute(new Runnable() {
+					public void run() {
+						listener.onBatchChanged(WheelView.this, firstOld, lastNew, itemsPassed);
+					}
+				});
+			}
 		}
 	}
 
@@ -236,8 +534,9 @@ public class WheelView extends View {
 	 * 更新车轮开始转动的监听器
 	 */
 	protected void notifyScrollingListenersAboutStart() {
-		for (OnWheelScrollListener listener : scrollingListeners) {
-			listener.onScrollingStarted(this);
+		Object[] listeners = scrollingListeners.snapshot();
+		for (int i = 0; i < ListenerList.size(listeners); i++) {
+			scrollingListeners.get(listeners, i).onScrollingStarted(this);
 		}
 	}
 
@@ -245,8 +544,9 @@ public class WheelView extends View {
 	 * 更新车轮转动最后的监听器
 	 */
 	protected void notifyScrollingListenersAboutEnd() {
-		for (OnWheelScrollListener listener : scrollingListeners) {
-			listener.onScrollingFinished(this);
+		Object[] listeners = scrollingListeners.snapshot();
+		for (int i = 0; i < ListenerList.size(listeners); i++) {
+			scrollingListeners.get(listeners, i).onScrollingFinished(this);
 		}
 	}
 
@@ -270,8 +570,9 @@ public class WheelView extends View {
      * 更新轮子点击的监听器
      */
     protected void notifyClickListenersAboutClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
-            listener.onItemClicked(this, item);
+        Object[] listeners = clickingListeners.snapshot();
+        for (int i = 0; i < ListenerList.size(listeners); i++) {
+            clickingListeners.get(listeners, i).onItemClicked(this, item);
         }
     }
 
@@ -280,6 +581,7 @@ public class WheelView extends View {
 	 * @return the current value
 	 */
 	public int getCurrentItem() {
+		applyPendingScroll();
 		return currentItem;
 	}
 
@@ -292,37 +594,35 @@ public class WheelView extends View {
 		if (viewAdapter == null || viewAdapter.getItemsCount() == 0) {
 			return; // throw?
 		}
+		applyPendingScroll();
 		
 		int itemCount = viewAdapter.getItemsCount();
 		if (index < 0 || index >= itemCount) {
 			if (isCyclic) {
-				while (index < 0) {
-					index += itemCount;
-				}
-				index %= itemCount;
+				index = WheelPosition.floorMod(index, itemCount);
 			} else{
 				return; // throw?
 			}
 		}
 		if (index != currentItem) {
 			if (animated) {
-			    int itemsToScroll = index - currentItem;
-			    if (isCyclic) {
-			        int scroll = itemCount + Math.min(index, currentItem) - Math.max(index, currentItem);
-			        if (scroll < Math.abs(itemsToScroll)) {
-			            itemsToScroll = itemsToScroll < 0 ? scroll : -scroll;
-			        }
-			    }
-				scroll(itemsToScroll, 0);
+				updateGeometry();
+				scroll(geometry.shortestScroll(currentItem, index), 0);
 			} else {
 				scrollingOffset = 0;
 			
 				int old = currentItem;
 				currentItem = index;
+				if (!isApplyingScroll) {
+					position.moveBy(index - old);
+				}
 			
-				notifyChangingListeners(old, currentItem);
+				dispatchChange(old, currentItem);
+				addBatchChange(old, currentItem, isApplyingScroll ? scrollItemsPassed : currentItem - old);
 			
-				invalidate();
+				if (!isApplyingScroll) {
+					invalidate();
+				}
 			}
 		}
 	}
@@ -357,15 +657,18 @@ public class WheelView extends View {
 	 * @param clearCaches if true then cached views will be clear
 	 */
     public void invalidateWheel(boolean clearCaches) {
+        // 数据变化后测量缓存失效
+        dataVersion++;
         if (clearCaches) {
             recycle.clearAll();
             if (itemsLayout != null) {
                 itemsLayout.removeAllViews();
+                items.clear();
             }
             scrollingOffset = 0;
         } else if (itemsLayout != null) {
             // cache all items
-	        recycle.recycleItems(itemsLayout, firstItem, new ItemsRange());         
+	        items.recycleAll();
         }
         
         invalidate();
@@ -375,19 +678,17 @@ public class WheelView extends View {
 	 * 初始化必要的资源
 	 */
 	private void initResourcesIfNecessary() {
-		if (centerDrawable == null) {
-			centerDrawable = getContext().getResources().getDrawable(R.drawable.wheel_val);
-		}
-
-		if (topShadow == null) {
-			topShadow = new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS);
-		}
-
-		if (bottomShadow == null) {
-			bottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS);
+		if (chrome != null) {
+			return;
 		}
 
-		setBackgroundResource(R.drawable.wheel_bg);
+		Resources res = getContext().getResources();
+		chrome = new WheelChrome(res.getDrawable(R.drawable.wheel_bg),
+				res.getDrawable(R.drawable.wheel_val),
+				new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS),
+				new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS));
+		// 背景合成在缓存图里，不再由View每帧绘制
+		setBackgroundDrawable(null);
 	}
 	
 	/**
@@ -414,6 +715,10 @@ public class WheelView extends View {
 		if (itemHeight != 0) {
 			return itemHeight;
 		}
+		if (fixedItemHeight != 0) {
+			itemHeight = fixedItemHeight;
+			return itemHeight;
+		}
 		
 		if (itemsLayout != null && itemsLayout.getChildAt(0) != null) {
 			itemHeight = itemsLayout.getChildAt(0).getHeight();
@@ -432,7 +737,7 @@ public class WheelView extends View {
 	private int calculateLayoutWidth(int widthSize, int mode) {
 		initResourcesIfNecessary();
 
-		itemsLayout.setLayoutParams(new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT));
+		itemsLayout.setLayoutParams(itemsLayoutParams);
 	    itemsLayout.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED), 
 	                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
 		int width = itemsLayout.getMeasuredWidth();
@@ -456,6 +761,29 @@ public class WheelView extends View {
 		return width;
 	}
 
+	/**
+	 * 根据已知的item大小计算轮子的宽度，不需要测量item
+	 * @param itemWidth the item width
+	 * @param height the item height
+	 * @param widthSize the input layout width
+	 * @param mode the layout mode
+	 * @return the calculated control width
+	 */
+	private int calculateFixedWidth(int itemWidth, int height, int widthSize, int mode) {
+		initResourcesIfNecessary();
+
+		itemHeight = height;
+		if (mode == MeasureSpec.EXACTLY) {
+			return widthSize;
+		}
+
+		int width = Math.max(itemWidth + 2 * PADDING, getSuggestedMinimumWidth());
+		if (mode == MeasureSpec.AT_MOST && widthSize < width) {
+			width = widthSize;
+		}
+		return width;
+	}
+
 	@Override
 	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
 		int widthMode = MeasureSpec.getMode(widthMeasureSpec);
@@ -463,21 +791,42 @@ public class WheelView extends View {
 		int widthSize = MeasureSpec.getSize(widthMeasureSpec);
 		int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
-		buildViewForMeasuring();
-		
-		int width = calculateLayoutWidth(widthSize, widthMode);
+		if (hasMeasureCache && cachedWidthSpec == widthMeasureSpec && cachedHeightSpec == heightMeasureSpec
+				&& cachedDataVersion == dataVersion && cachedVisibleItems == visibleItems) {
+			setMeasuredDimension(cachedWidth, cachedHeight);
+			return;
+		}
+
+		int width;
+		boolean measureItems = false;
+		if (itemRenderer != null) {
+			width = calculateFixedWidth(itemRenderer.getItemWidth(), itemRenderer.getItemHeight(), widthSize, widthMode);
+		} else if (fixedItemWidth > 0 && fixedItemHeight > 0) {
+			width = calculateFixedWidth(fixedItemWidth, fixedItemHeight, widthSize, widthMode);
+		} else {
+			buildViewForMeasuring();
+			width = calculateLayoutWidth(widthSize, widthMode);
+			measureItems = true;
+		}
 
 		int height;
 		if (heightMode == MeasureSpec.EXACTLY) {
 			height = heightSize;
 		} else {
-			height = getDesiredHeight(itemsLayout);
+			height = getDesiredHeight(measureItems ? itemsLayout : null);
 
 			if (heightMode == MeasureSpec.AT_MOST) {
 				height = Math.min(height, heightSize);
 			}
 		}
 
+		hasMeasureCache = true;
+		cachedWidthSpec = widthMeasureSpec;
+		cachedHeightSpec = heightMeasureSpec;
+		cachedDataVersion = dataVersion;
+		cachedVisibleItems = visibleItems;
+		cachedWidth = width;
+		cachedHeight = height;
 		setMeasuredDimension(width, height);
 	}
 	
@@ -492,6 +841,9 @@ public class WheelView extends View {
      * @param height the layout height
      */
     private void layout(int width, int height) {
+		if (itemsLayout == null) {
+			return;
+		}
 		int itemsWidth = width - 2 * PADDING;
 		
 		itemsLayout.layout(0, 0, itemsWidth, height);
@@ -500,28 +852,49 @@ public class WheelView extends View {
 	@Override
 	protected void onDraw(Canvas canvas) {
 		super.onDraw(canvas);
+		long drawStart = metrics.isEnabled() ? System.nanoTime() : 0;
+		initResourcesIfNecessary();
+		isDrawing = true;
+		try {
+			applyPendingScroll();
+		} finally {
+			isDrawing = false;
+		}
+		if (hasBatchChange) {
+			postAfterDraw();
+		}
 		
-		if (viewAdapter != null && viewAdapter.getItemsCount() > 0) {
-	        updateView();
+		boolean hasItems = viewAdapter != null && viewAdapter.getItemsCount() > 0;
+		int width = getWidth();
+		int height = getHeight();
+		int itemHeight = getItemHeight();
 
-	        drawItems(canvas);
-	        drawCenterRect(canvas);
+		chrome.drawUnder(canvas, width, height, itemHeight, hasItems);
+		if (hasItems) {
+			if (itemRenderer != null) {
+				updateLevelOfDetail();
+				drawRendererItems(canvas);
+			} else {
+		        updateView();
+
+		        drawItems(canvas);
+			}
 		}
-		
-        drawShadows(canvas);
-	}
+		chrome.drawOver(canvas, width, height, itemHeight, hasItems);
 
-	/**
-	 * 画出轮子头部和尾部的阴影
-	 * @param canvas the canvas for drawing
-	 */
-	private void drawShadows(Canvas canvas) {
-		int height = (int)(1.5 * getItemHeight());
-		topShadow.setBounds(0, 0, getWidth(), height);
-		topShadow.draw(canvas);
+		if (drawStart != 0) {
+			metrics.recordDraw(System.nanoTime() - drawStart);
+		}
+	}
 
-		bottomShadow.setBounds(0, getHeight() - height, getWidth(), getHeight());
-		bottomShadow.draw(canvas);
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		removeCallbacks(afterDraw);
+		isAfterDrawPosted = false;
+		if (chrome != null) {
+			chrome.release();
+		}
 	}
 
 	/**
@@ -531,7 +904,7 @@ public class WheelView extends View {
 	private void drawItems(Canvas canvas) {
 		canvas.save();
 		
-		int top = (currentItem - firstItem) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
+		int top = (currentItem - items.getFirstItem()) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
 		canvas.translate(PADDING, - top + scrollingOffset);
 		
 		itemsLayout.draw(canvas);
@@ -540,14 +913,76 @@ public class WheelView extends View {
 	}
 
 	/**
-	 * 画出当前值
+	 * 根据当前的滚动速度更新渲染器的细节级别
+	 */
+	private void updateLevelOfDetail() {
+		if (!(itemRenderer instanceof LevelOfDetailRenderer)) {
+			return;
+		}
+
+		int level = 0;
+		if (levelOfDetailThresholds != null && getItemHeight() > 0) {
+			float velocity = Math.abs(scroller.getCurrentVelocity()) / getItemHeight();
+			while (level < levelOfDetailThresholds.length && velocity >= levelOfDetailThresholds[level]) {
+				level++;
+			}
+		}
+
+		if (level != levelOfDetail) {
+			levelOfDetail = level;
+			((LevelOfDetailRenderer) itemRenderer).setLevelOfDetail(level);
+		}
+	}
+
+	/**
+	 * 用渲染器直接画出可见的item，不经过itemsLayout
 	 * @param canvas the canvas for drawing
 	 */
-	private void drawCenterRect(Canvas canvas) {
-		int center = getHeight() / 2;
-		int offset = (int) (getItemHeight() / 2 * 1.2);
-		centerDrawable.setBounds(0, center - offset, getWidth(), center + offset);
-		centerDrawable.draw(canvas);
+	private void drawRendererItems(Canvas canvas) {
+		if (isCyclic && itemRenderer instanceof WheelStripRenderer) {
+			drawStrip(canvas, (WheelStripRenderer) itemRenderer);
+			return;
+		}
+
+		ItemsRange range = getItemsRange();
+		if (range == null) {
+			return;
+		}
+
+		int itemHeight = getItemHeight();
+		int itemWidth = getWidth() - 2 * PADDING;
+		int count = viewAdapter.getItemsCount();
+
+		canvas.save();
+
+		int top = (currentItem - range.getFirst()) * itemHeight + (itemHeight - getHeight()) / 2;
+		canvas.translate(PADDING, - top + scrollingOffset);
+
+		for (int i = range.getFirst(); i <= range.getLast(); i++) {
+			if (isValidItemIndex(i)) {
+				itemRenderer.drawItem(canvas, WheelPosition.floorMod(i, count), itemWidth, itemHeight);
+			} else {
+				itemRenderer.drawEmptyItem(canvas, itemWidth, itemHeight);
+			}
+			canvas.translate(0, itemHeight);
+		}
+
+		canvas.restore();
+	}
+
+	/**
+	 * 循环轮子从长图上截取可见的窗口，当前item在中间
+	 * @param canvas the canvas for drawing
+	 * @param stripRenderer the strip renderer
+	 */
+	private void drawStrip(Canvas canvas, WheelStripRenderer stripRenderer) {
+		int itemHeight = getItemHeight();
+		int stripTop = currentItem * itemHeight + (itemHeight - getHeight()) / 2 - scrollingOffset;
+
+		canvas.save();
+		canvas.translate(PADDING, 0);
+		stripRenderer.drawStrip(canvas, stripTop, getWidth() - 2 * PADDING, getHeight());
+		canvas.restore();
 	}
 
 	@Override
@@ -564,6 +999,7 @@ public class WheelView extends View {
 		        break;
 		        
 		    case MotionEvent.ACTION_UP:
+		        applyPendingScroll();
 		        if (!isScrollingPerformed) {
 		            int distance = (int) event.getY() - getHeight() / 2;
 		            if (distance > 0) {
@@ -583,63 +1019,25 @@ public class WheelView extends View {
 	}
 	
 	/**
-	 * 滚动轮子
-	 * @param delta the scrolling value
+	 * 应用本帧累计的滚动距离。一帧里不管来了多少次触摸和动画的滚动，
+	 * 都只在这里合并处理一次，通知当前值改变的监听器。
 	 */
-	private void doScroll(int delta) {
-		scrollingOffset += delta;
-		
-		int itemHeight = getItemHeight();
-		int count = scrollingOffset / itemHeight;
-
-		int pos = currentItem - count;
-		int itemCount = viewAdapter.getItemsCount();
-		
-	    int fixPos = scrollingOffset % itemHeight;
-	    if (Math.abs(fixPos) <= itemHeight / 2) {
-	        fixPos = 0;
-	    }
-		if (isCyclic && itemCount > 0) {
-		    if (fixPos > 0) {
-		        pos--;
-                count++;
-		    } else if (fixPos < 0) {
-		        pos++;
-		        count--;
-		    }
-			// fix position by rotating
-			while (pos < 0) {
-				pos += itemCount;
-			}
-			pos %= itemCount;
-		} else {
-			// 
-			if (pos < 0) {
-				count = currentItem;
-				pos = 0;
-			} else if (pos >= itemCount) {
-				count = currentItem - itemCount + 1;
-				pos = itemCount - 1;
-			} else if (pos > 0 && fixPos > 0) {
-                pos--;
-                count++;
-            } else if (pos < itemCount - 1 && fixPos < 0) {
-                pos++;
-                count--;
-            }
+	private void applyPendingScroll() {
+		if (!items.isScrollPending()) {
+			return;
 		}
-		
-		int offset = scrollingOffset;
-		if (pos != currentItem) {
-			setCurrentItem(pos, false);
-		} else {
-			invalidate();
+		if (viewAdapter == null || getItemHeight() == 0) {
+			items.clearScroll();
+			return;
 		}
-		
-		// update offset
-		scrollingOffset = offset - count * itemHeight;
-		if (scrollingOffset > getHeight()) {
-			scrollingOffset = scrollingOffset % getHeight() + getHeight();
+
+		isApplyingScroll = true;
+		try {
+			updateGeometry();
+			// 当前item改变时在回调里通知，超出边界时停止滚动
+			scrollingOffset = items.applyScroll(geometry, position, currentItem, scrollingOffset);
+		} finally {
+			isApplyingScroll = false;
 		}
 	}
 		
@@ -649,12 +1047,40 @@ public class WheelView extends View {
 	 * @param time scrolling duration
 	 */
 	public void scroll(int itemsToScroll, int time) {
+		applyPendingScroll();
 		int distance = itemsToScroll * getItemHeight() - scrollingOffset;
         scroller.scroll(distance, time);
 	}
 	
 	/**
-	 * 计算边缘item值
+	 * 一次动画转到指定的item，不需要停止后的调整动画。
+	 * 开始转动前就算好精确的像素距离，动画结束时正好对齐目标item，
+	 * 所以结果在开始时就可以知道。
+	 * @param targetIndex the item to stop at
+	 * @param extraRevolutions the count of full revolutions before stopping, cyclic wheels only
+	 * @param durationMs the spin duration, 0 for the default one
+	 * @param easing the spin easing, or null for the wheel interpolator
+	 * @return the item the wheel stops at, or -1 if the wheel has no items
+	 */
+	public int spinTo(int targetIndex, int extraRevolutions, int durationMs, Easing easing) {
+		if (viewAdapter == null || viewAdapter.getItemsCount() == 0 || getItemHeight() == 0) {
+			return -1;
+		}
+
+		applyPendingScroll();
+		int itemCount = viewAdapter.getItemsCount();
+		updateGeometry();
+		int itemsToScroll = geometry.spinScroll(currentItem, targetIndex, extraRevolutions);
+
+		// 正的距离使当前值增加，scrollingOffset也算进去，结束时偏移正好为0
+		int distance = itemsToScroll * getItemHeight() + scrollingOffset;
+		scroller.scroll(distance, durationMs, easing);
+
+		return WheelPosition.floorMod((long) currentItem + itemsToScroll, itemCount);
+	}
+
+	/**
+	 * 计算边缘item值，返回的范围对象每次调用都会被复用
 	 * @return the items range
 	 */
 	private ItemsRange getItemsRange() {
@@ -662,25 +1088,35 @@ public class WheelView extends View {
             return null;
         }
         
-		int first = currentItem;
-		int count = 1;
-		
-		while (count * getItemHeight() < getHeight()) {
-			first--;
-			count += 2; // top + bottom items
-		}
-		
-		if (scrollingOffset != 0) {
-			if (scrollingOffset > 0) {
-				first--;
-			}
-			count++;
-			
-			int emptyItems = scrollingOffset / getItemHeight();
-			first -= emptyItems;
-			count += Math.asin(emptyItems);
+		updateGeometry();
+		geometry.computeRange(currentItem, scrollingOffset);
+		itemsRange.set(geometry.getRangeFirst(), geometry.getRangeCount());
+		return itemsRange;
+	}
+
+	/**
+	 * 把当前的尺寸交给位置计算
+	 */
+	private void updateGeometry() {
+		int count = viewAdapter != null ? viewAdapter.getItemsCount() : 0;
+		geometry.setup(count, getItemHeight(), getHeight(), isCyclic);
+		position.setup(count, isCyclic);
+	}
+
+	/**
+	 * 获取轮子的虚拟位置，循环轮子转过的圈数也算在里面
+	 * @return the wheel position, reused by the next call
+	 */
+	public WheelPosition getPosition() {
+		applyPendingScroll();
+		updateGeometry();
+		if (viewAdapter != null && viewAdapter.getItemsCount() > 0
+				&& position.getIndex() != currentItem) {
+			// 适配器改变后重新对齐到当前item
+			position.moveBy(currentItem - position.getIndex());
 		}
-		return new ItemsRange(first, count);
+		position.setOffset(scrollingOffset);
+		return position;
 	}
 	
 	/**
@@ -689,41 +1125,9 @@ public class WheelView extends View {
 	 * @return true if items are rebuilt
 	 */
 	private boolean rebuildItems() {
-		boolean updated = false;
 		ItemsRange range = getItemsRange();
-		if (itemsLayout != null) {
-			int first = recycle.recycleItems(itemsLayout, firstItem, range);
-			updated = firstItem != first;
-			firstItem = first;
-		} else {
-			createItemsLayout();
-			updated = true;
-		}
-		
-		if (!updated) {
-			updated = firstItem != range.getFirst() || itemsLayout.getChildCount() != range.getCount();
-		}
-		
-		if (firstItem > range.getFirst() && firstItem <= range.getLast()) {
-			for (int i = firstItem - 1; i >= range.getFirst(); i--) {
-				if (!addViewItem(i, true)) {
-				    break;
-				}
-				firstItem = i;
-			}			
-		} else {
-		    firstItem = range.getFirst();
-		}
-		
-		int first = firstItem;
-		for (int i = itemsLayout.getChildCount(); i < range.getCount(); i++) {
-			if (!addViewItem(firstItem + i, false) && itemsLayout.getChildCount() == 0) {
-			    first++;
-			}
-		}
-		firstItem = first;
-		
-		return updated;
+		createItemsLayout();
+		return items.rebuild(range.getFirst(), range.getCount());
 	}
 	
 	/**
@@ -731,6 +1135,7 @@ public class WheelView extends View {
 	 */
 	private void updateView() {
 		if (rebuildItems()) {
+			metrics.recordRebuild();
 			calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
 			layout(getWidth(), getHeight());
 		}
@@ -750,20 +1155,9 @@ public class WheelView extends View {
 	 * 重建新的计算方法
 	 */
 	private void buildViewForMeasuring() {
-		// clear all items
-		if (itemsLayout != null) {
-			recycle.recycleItems(itemsLayout, firstItem, new ItemsRange());			
-		} else {
-			createItemsLayout();
-		}
-		
-		// add views
-		int addItems = visibleItems / 2;
-		for (int i = currentItem + addItems; i >= currentItem - addItems; i--) {
-			if (addViewItem(i, true)) {
-			    firstItem = i;
-			}
-		}
+		createItemsLayout();
+		// 缓存所有的item，再加上当前item上下的item
+		items.rebuildAround(currentItem, visibleItems / 2);
 	}
 
 	/**
@@ -788,13 +1182,13 @@ public class WheelView extends View {
 	}
 	
 	/**
-	 * 检查轮子的item的index正确性
+	 * 检查轮子的item的index正确性，不应用累计的滚动，不通知监听器，回收item时也用它
 	 * @param index the item index
 	 * @return true if item index is not out of bounds or the wheel is cyclic
 	 */
-	private boolean isValidItemIndex(int index) {
-	    return viewAdapter != null && viewAdapter.getItemsCount() > 0 &&
-	        (isCyclic || index >= 0 && index < viewAdapter.getItemsCount());
+	boolean isValidItemIndex(int index) {
+	    updateGeometry();
+	    return position.isValidIndex(index);
 	}
 	
 	/**
@@ -806,16 +1200,12 @@ public class WheelView extends View {
 		if (viewAdapter == null || viewAdapter.getItemsCount() == 0) {
 			return null;
 		}
-		int count = viewAdapter.getItemsCount();
 		if (!isValidItemIndex(index)) {
 			return viewAdapter.getEmptyItem(recycle.getEmptyItem(), itemsLayout);
-		} else {
-			while (index < 0) {
-				index = count + index;
-			}
 		}
 		
-		index %= count;
+		index = position.toIndex(index);
+		metrics.recordGetItem();
 		return viewAdapter.getItem(index, recycle.getItem(), itemsLayout);
 	}
 	
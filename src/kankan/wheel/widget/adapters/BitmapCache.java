@@ -0,0 +1,212 @@
+package kankan.wheel.widget.adapters;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.support.v4.util.LongSparseArray;
+
+/**
+ * 多个适配器共用的图片缓存。
+ * 按（资源id，目标大小）缓存缩放后的图片，总字节数不超过预算，超出时淘汰最久没用的图片。
+ * 几个转轮上相同的图片只解码一次。内存紧张时由onTrimMemory和onLowMemory释放。
+ * 键是基本类型的long，查找时不分配对象，转动中每帧都可以查。
+ * 只能在主线程使用。
+ */
+public class BitmapCache {
+	/** 默认预算占最大可用内存的比例 */
+	private static final int DEF_MEMORY_FRACTION = 8;
+
+	// 缓存的图片和最后使用的时间
+	private static class Entry {
+		Bitmap bitmap;
+		int bytes;
+		long lastUse;
+	}
+
+	// 共用的实例
+	private static BitmapCache instance;
+
+	// 缓存，键由资源id和大小组成
+	private final LongSparseArray<Entry> cache = new LongSparseArray<Entry>();
+	private final int maxBytes;
+	private int bytes;
+	// 使用的计数，代替时间排出最久没用的图片
+	private long useCounter;
+
+	// 统计
+	private int hitCount;
+	private int missCount;
+	private int evictionCount;
+
+	/**
+	 * 获取共用的图片缓存，预算为最大可用内存的1/8
+	 * @return the shared bitmap cache
+	 */
+	public static BitmapCache getInstance() {
+		if (instance == null) {
+			long maxBytes = Runtime.getRuntime().maxMemory() / DEF_MEMORY_FRACTION;
+			instance = new BitmapCache((int) Math.min(maxBytes, Integer.MAX_VALUE));
+		}
+		return instance;
+	}
+
+	/**
+	 * 构造函数
+	 * @param maxBytes the memory budget in bytes
+	 */
+	public BitmapCache(int maxBytes) {
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("maxBytes <= 0");
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 组成缓存的键
+	 */
+	static long key(int resId, int width, int height) {
+		return ((long) resId << 32) | ((width & 0xFFFFL) << 16) | (height & 0xFFFFL);
+	}
+
+	/**
+	 * 获取缓存的图片
+	 * @param resId the drawable resource id
+	 * @param width the target width
+	 * @param height the target height
+	 * @return the cached bitmap or null
+	 */
+	public Bitmap get(int resId, int width, int height) {
+		return get(key(resId, width, height));
+	}
+
+	/**
+	 * 按键获取缓存的图片
+	 */
+	Bitmap get(long key) {
+		Entry entry = cache.get(key);
+		if (entry == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		entry.lastUse = ++useCounter;
+		return entry.bitmap;
+	}
+
+	/**
+	 * 检查是否缓存了图片，不算在统计和使用顺序里
+	 */
+	boolean contains(long key) {
+		return cache.get(key) != null;
+	}
+
+	/**
+	 * 缓存图片
+	 * @param resId the drawable resource id
+	 * @param width the target width
+	 * @param height the target height
+	 * @param bitmap the bitmap of the target size
+	 */
+	public void put(int resId, int width, int height, Bitmap bitmap) {
+		long key = key(resId, width, height);
+		Entry entry = cache.get(key);
+		if (entry == null) {
+			entry = new Entry();
+			cache.put(key, entry);
+		} else {
+			bytes -= entry.bytes;
+		}
+		entry.bitmap = bitmap;
+		entry.bytes = bitmap.getRowBytes() * bitmap.getHeight();
+		entry.lastUse = ++useCounter;
+		bytes += entry.bytes;
+		trimToSize(maxBytes);
+	}
+
+	/**
+	 * 淘汰最久没用的图片，直到总字节数不超过给定大小。
+	 * 缓存里只有几十张图片，每次淘汰线性查找最旧的一张。
+	 */
+	private void trimToSize(int size) {
+		while (bytes > size && cache.size() > 0) {
+			int oldest = 0;
+			for (int i = 1; i < cache.size(); i++) {
+				if (cache.valueAt(i).lastUse < cache.valueAt(oldest).lastUse) {
+					oldest = i;
+				}
+			}
+			bytes -= cache.valueAt(oldest).bytes;
+			cache.removeAt(oldest);
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void evictAll() {
+		trimToSize(-1);
+	}
+
+	/**
+	 * 获取缓存图片的总字节数
+	 * @return the cached bytes
+	 */
+	public int size() {
+		return bytes;
+	}
+
+	/**
+	 * 获取预算
+	 * @return the memory budget in bytes
+	 */
+	public int maxSize() {
+		return maxBytes;
+	}
+
+	/**
+	 * 获取命中次数
+	 * @return the hit count
+	 */
+	public int hitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * 获取没命中次数
+	 * @return the miss count
+	 */
+	public int missCount() {
+		return missCount;
+	}
+
+	/**
+	 * 获取淘汰次数
+	 * @return the eviction count
+	 */
+	public int evictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * 按内存紧张程度释放缓存，由Activity或Application的onTrimMemory调用
+	 * @param level the trim level
+	 */
+	public void onTrimMemory(int level) {
+		if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+			evictAll();
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+			trimToSize(maxBytes / 4);
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+			trimToSize(maxBytes / 2);
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+			trimToSize(maxBytes * 3 / 4);
+		}
+	}
+
+	/**
+	 * 系统内存不足时清空缓存，由Activity或Application的onLowMemory调用
+	 */
+	public void onLowMemory() {
+		evictAll();
+	}
+}
@@ -0,0 +1,278 @@
+package kankan.wheel.widget.adapters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.util.LongSparseArray;
+
+/**
+ * 后台解码图片的加载器。
+ * 图片在后台线程按接近目标大小的inSampleSize解码，不透明的图片可以用RGB_565，
+ * 解码用的中间图片通过inBitmap复用；解码完成后在主线程放进{@link BitmapCache}并通知监听器。
+ * 主线程只从缓存取图片，取不到时显示占位，不会因为解码卡住一帧。
+ * 除了解码线程，其它方法只能在主线程调用。
+ */
+public class BitmapLoader {
+	/**
+	 * 图片加载完成的回调接口，在主线程调用
+	 */
+	public interface OnBitmapLoadedListener {
+		/**
+		 * 图片解码完成并放进缓存后回调
+		 * @param resId the drawable resource id
+		 * @param width the target width
+		 * @param height the target height
+		 * @param bitmap the decoded bitmap
+		 */
+		void onBitmapLoaded(int resId, int width, int height, Bitmap bitmap);
+	}
+
+	/** 默认的解码线程数 */
+	private static final int DEF_THREADS = 2;
+	/** 最多保留的可复用中间图片 */
+	private static final int MAX_REUSABLE = 4;
+
+	private final Resources resources;
+	private final BitmapCache cache;
+	private final ExecutorService executor;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+
+	// 正在解码的图片，只在主线程访问。值不用，键是基本类型，查找不分配对象
+	private final LongSparseArray<Object> pending = new LongSparseArray<Object>();
+	// 加载完成的监听器
+	private final List<OnBitmapLoadedListener> listeners = new ArrayList<OnBitmapLoadedListener>();
+	// 可复用的中间图片，解码线程共用
+	private final List<Bitmap> reusable = new ArrayList<Bitmap>();
+
+	/**
+	 * 构造函数，使用两个后台解码线程
+	 * @param resources the resources to decode from
+	 * @param cache the cache decoded bitmaps are put to
+	 */
+	public BitmapLoader(Resources resources, BitmapCache cache) {
+		this(resources, cache, DEF_THREADS);
+	}
+
+	/**
+	 * 构造函数
+	 * @param resources the resources to decode from
+	 * @param cache the cache decoded bitmaps are put to
+	 * @param threads the count of decoding threads
+	 */
+	public BitmapLoader(Resources resources, BitmapCache cache, int threads) {
+		this.resources = resources;
+		this.cache = cache;
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(final Runnable r) {
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+						r.run();
+					}
+				}, "BitmapLoader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * 添加加载完成的监听器
+	 * @param listener the listener
+	 */
+	public void addListener(OnBitmapLoadedListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * 删除加载完成的监听器
+	 * @param listener the listener
+	 */
+	public void removeListener(OnBitmapLoadedListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * 获取图片，缓存里没有时开始后台解码并返回null，由调用者显示占位
+	 * @param resId the drawable resource id
+	 * @param width the target width
+	 * @param height the target height
+	 * @param opaque true if the image has no transparent pixels and can be decoded to RGB_565
+	 * @return the cached bitmap or null
+	 */
+	public Bitmap get(int resId, int width, int height, boolean opaque) {
+		Bitmap bitmap = cache.get(resId, width, height);
+		if (bitmap == null) {
+			request(resId, width, height, opaque);
+		}
+		return bitmap;
+	}
+
+	/**
+	 * 预先解码图片，已经缓存、正在解码或加载器已经停止时不做任何事
+	 * @param resId the drawable resource id
+	 * @param width the target width
+	 * @param height the target height
+	 * @param opaque true if the image has no transparent pixels and can be decoded to RGB_565
+	 */
+	public void request(final int resId, final int width, final int height, final boolean opaque) {
+		if (executor.isShutdown()) {
+			return;
+		}
+		final long key = BitmapCache.key(resId, width, height);
+		if (pending.get(key) != null || cache.contains(key)) {
+			return;
+		}
+		pending.put(key, Boolean.TRUE);
+
+		executor.execute(new Runnable() {
+			public void run() {
+				final Bitmap bitmap = decode(resId, width, height, opaque);
+				handler.post(new Runnable() {
+					public void run() {
+						deliver(key, resId, width, height, bitmap);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * 停止解码线程，没有完成的图片不再通知
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		listeners.clear();
+		pending.clear();
+		synchronized (reusable) {
+			reusable.clear();
+		}
+	}
+
+	/**
+	 * 在主线程缓存解码好的图片并通知监听器
+	 */
+	private void deliver(long key, int resId, int width, int height, Bitmap bitmap) {
+		if (pending.get(key) == null) {
+			return;
+		}
+		pending.remove(key);
+		if (bitmap == null) {
+			return;
+		}
+		cache.put(resId, width, height, bitmap);
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).onBitmapLoaded(resId, width, height, bitmap);
+		}
+	}
+
+	/**
+	 * 在解码线程解码图片并缩放到目标大小
+	 */
+	private Bitmap decode(int resId, int width, int height, boolean opaque) {
+		BitmapFactory.Options options = new BitmapFactory.Options();
+		options.inScaled = false;
+		options.inJustDecodeBounds = true;
+		BitmapFactory.decodeResource(resources, resId, options);
+		if (options.outWidth <= 0 || options.outHeight <= 0) {
+			return null;
+		}
+
+		options.inJustDecodeBounds = false;
+		options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, width, height);
+		options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+			options.inMutable = true;
+			options.inBitmap = takeReusable(options);
+		}
+
+		Bitmap decoded;
+		try {
+			decoded = BitmapFactory.decodeResource(resources, resId, options);
+		} catch (IllegalArgumentException e) {
+			// inBitmap is not suitable, decode to a new bitmap
+			options.inBitmap = null;
+			decoded = BitmapFactory.decodeResource(resources, resId, options);
+		}
+		if (decoded == null || (decoded.getWidth() == width && decoded.getHeight() == height)) {
+			return decoded;
+		}
+
+		Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+		if (scaled != decoded) {
+			offerReusable(decoded);
+		}
+		return scaled;
+	}
+
+	/**
+	 * 计算解码的inSampleSize，取使解码结果不小于目标大小的最大的2的幂
+	 * @param outWidth the image width
+	 * @param outHeight the image height
+	 * @param reqWidth the target width
+	 * @param reqHeight the target height
+	 * @return the sample size
+	 */
+	public static int calculateInSampleSize(int outWidth, int outHeight, int reqWidth, int reqHeight) {
+		int sampleSize = 1;
+		while (outWidth / (sampleSize * 2) >= reqWidth && outHeight / (sampleSize * 2) >= reqHeight) {
+			sampleSize *= 2;
+		}
+		return sampleSize;
+	}
+
+	/**
+	 * 取一张可以用作inBitmap的中间图片
+	 */
+	private Bitmap takeReusable(BitmapFactory.Options options) {
+		synchronized (reusable) {
+			for (int i = 0; i < reusable.size(); i++) {
+				Bitmap candidate = reusable.get(i);
+				if (canReuse(candidate, options)) {
+					reusable.remove(i);
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 保存用完的中间图片，超出数目时回收
+	 */
+	private void offerReusable(Bitmap bitmap) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB && bitmap.isMutable()) {
+			synchronized (reusable) {
+				if (reusable.size() < MAX_REUSABLE) {
+					reusable.add(bitmap);
+					return;
+				}
+			}
+		}
+		bitmap.recycle();
+	}
+
+	/**
+	 * 检查图片能不能用作这次解码的inBitmap
+	 */
+	private static boolean canReuse(Bitmap candidate, BitmapFactory.Options options) {
+		int width = options.outWidth / options.inSampleSize;
+		int height = options.outHeight / options.inSampleSize;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			int bytesPerPixel = options.inPreferredConfig == Bitmap.Config.RGB_565 ? 2 : 4;
+			return width * height * bytesPerPixel <= candidate.getAllocationByteCount();
+		}
+		return options.inSampleSize == 1 && candidate.getWidth() == width && candidate.getHeight() == height
+				&& candidate.getConfig() == options.inPreferredConfig;
+	}
+}
@@ -0,0 +1,20 @@
+package kankan.wheel.widget.adapters;
+
+/**
+ * 支持按滚动速度降低细节的渲染器。
+ * 轮子转得很快时看不清图片的细节，渲染器可以改画缩小过的图片，
+ * 减少每帧读取的像素；转慢下来后轮子会把级别切回0。
+ */
+public interface LevelOfDetailRenderer {
+	/**
+	 * 获取支持的细节级别数目，0是原图
+	 * @return the count of levels including the full detail one
+	 */
+	public int getLevelOfDetailCount();
+
+	/**
+	 * 设置之后绘制使用的细节级别
+	 * @param level the level, 0 for full detail, larger values for less detail
+	 */
+	public void setLevelOfDetail(int level);
+}
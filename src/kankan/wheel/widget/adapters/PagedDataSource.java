@@ -0,0 +1,24 @@
+package kankan.wheel.widget.adapters;
+
+import java.util.List;
+
+/**
+ * 分页加载的数据源，给{@link PagedWheelAdapter}使用。
+ * 数据可以来自数据库、网络或者直接计算出来（票号、日期），不需要一次全部放在内存里。
+ * @param <T> the item data type
+ */
+public interface PagedDataSource<T> {
+	/**
+	 * 获取数据的总数，在主线程调用，必须很快返回
+	 * @return the count of items
+	 */
+	public int getCount();
+
+	/**
+	 * 加载一页数据，在后台线程调用
+	 * @param start the index of the first item
+	 * @param count the count of items to load
+	 * @return the loaded items, as many as count unless the data ends
+	 */
+	public List<T> loadPage(int start, int count);
+}
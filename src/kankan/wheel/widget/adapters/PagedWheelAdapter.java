@@ -0,0 +1,327 @@
+package kankan.wheel.widget.adapters;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import kankan.wheel.widget.OnWheelChangedListener;
+import kankan.wheel.widget.WheelView;
+import kankan.wheel.widget.core.PageWindow;
+import kankan.wheel.widget.core.WheelPosition;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.util.LruCache;
+import android.support.v4.util.SparseArrayCompat;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 分页加载的轮子适配器，用于几十万个item的轮子。
+ * 数据按固定大小的页从{@link PagedDataSource}在后台线程加载，内存里最多保留maxPages页，
+ * 最久没有用到的页先被丢掉，所以不管item有多少内存都不会增长。
+ * 可见item所在的页和它们前后各一页会提前加载，页比可见item少时也一样，还没加载好的item显示占位；
+ * 快速滚动时滚出这些页的请求在加载前被丢掉，加载队列不会堆积。
+ * 作为{@link OnWheelChangedListener}加到轮子上后跟随当前item和轮子的可见item数加载。
+ * 除了加载线程，其它方法只能在主线程调用。
+ * @param <T> the item data type
+ */
+public abstract class PagedWheelAdapter<T> extends AbstractWheelAdapter implements OnWheelChangedListener {
+	/** 默认的每页item数 */
+	public static final int DEF_PAGE_SIZE = 64;
+	/** 默认最多保留的页数 */
+	public static final int DEF_MAX_PAGES = 8;
+	/** 默认的可见item数，和轮子的默认值一样 */
+	public static final int DEF_VISIBLE_ITEMS = 5;
+
+	private final PagedDataSource<T> dataSource;
+	private final int pageSize;
+	// 加载好的页，按最近使用淘汰，可见item变多时换成更大的
+	private LruCache<Integer, Object[]> pages;
+	// 正在加载的页和它的加载任务，只在主线程访问
+	private final SparseArrayCompat<Runnable> pending = new SparseArrayCompat<Runnable>();
+	private final ThreadPoolExecutor executor;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+
+	// 数据总数，reload时重新读取
+	private int count;
+	// 需要的页，加载线程也会读
+	private final PageWindow window;
+	// 当前item，还没有当前item时是-1
+	private int currentItem = -1;
+	// 可见item数，决定需要的页
+	private int visibleItems = DEF_VISIBLE_ITEMS;
+	// 数据的版本，reload之前开始的加载结果直接丢掉
+	private int generation;
+
+	/**
+	 * 构造函数，使用默认的页大小和页数
+	 * @param dataSource the data source
+	 */
+	public PagedWheelAdapter(PagedDataSource<T> dataSource) {
+		this(dataSource, DEF_PAGE_SIZE, DEF_MAX_PAGES);
+	}
+
+	/**
+	 * 构造函数
+	 * @param dataSource the data source
+	 * @param pageSize the count of items per page
+	 * @param maxPages the maximum count of pages kept in memory, raised to the pages needed by the visible items
+	 */
+	public PagedWheelAdapter(PagedDataSource<T> dataSource, int pageSize, int maxPages) {
+		this.dataSource = dataSource;
+		this.pageSize = Math.max(pageSize, 1);
+		this.pages = new LruCache<Integer, Object[]>(
+				Math.max(maxPages, PageWindow.getMaxWindowPages(visibleItems, this.pageSize)));
+		this.count = dataSource.getCount();
+		this.window = new PageWindow(this.pageSize);
+		window.setItemCount(count);
+		executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					public Thread newThread(final Runnable r) {
+						Thread thread = new Thread(new Runnable() {
+							public void run() {
+								Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+								r.run();
+							}
+						}, "PagedWheelAdapter");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * 创建或者复用item的View
+	 * @param index the item index
+	 * @param data the item data, or null if the item is still loading
+	 * @param convertView the cached view to reuse, may be null
+	 * @param parent the parent view
+	 * @return the item view
+	 */
+	protected abstract View getItem(int index, T data, View convertView, ViewGroup parent);
+
+	@Override
+	public int getItemsCount() {
+		return count;
+	}
+
+	@Override
+	public View getItem(int index, View convertView, ViewGroup parent) {
+		return getItem(index, getData(index), convertView, parent);
+	}
+
+	@Override
+	public void onChanged(WheelView wheel, int oldValue, int newValue) {
+		if (wheel.getVisibleItems() != visibleItems) {
+			setVisibleItems(wheel.getVisibleItems());
+		}
+		setCurrentItem(newValue);
+	}
+
+	/**
+	 * 设置可见item数，需要的页跟着改变，内存里保留的页数不够时增加
+	 * @param visibleItems the count of visible items of the wheel
+	 */
+	public void setVisibleItems(int visibleItems) {
+		this.visibleItems = Math.max(visibleItems, 1);
+		int needed = PageWindow.getMaxWindowPages(this.visibleItems, pageSize);
+		if (pages.maxSize() < needed) {
+			// 按最久没用到的顺序放进新的缓存，保持使用顺序
+			LruCache<Integer, Object[]> grown = new LruCache<Integer, Object[]>(needed);
+			for (Map.Entry<Integer, Object[]> entry : pages.snapshot().entrySet()) {
+				grown.put(entry.getKey(), entry.getValue());
+			}
+			pages = grown;
+		}
+		if (currentItem >= 0) {
+			setCurrentItem(currentItem);
+		}
+	}
+
+	/**
+	 * 获取item的数据，所在的页还没加载时开始加载并返回null
+	 * @param index the item index
+	 * @return the item data, or null if it is still loading
+	 */
+	@SuppressWarnings("unchecked")
+	public T getData(int index) {
+		if (index < 0 || index >= count) {
+			return null;
+		}
+		int page = index / pageSize;
+		Object[] data = pages.get(page);
+		if (data == null) {
+			requestPage(page);
+			return null;
+		}
+		int offset = index - page * pageSize;
+		return offset < data.length ? (T) data[offset] : null;
+	}
+
+	/**
+	 * 当前item改变后加载可见item所在的页和前后各一页，这些页同时被标记为最近使用，当前页最后标记
+	 * @param index the current item
+	 */
+	public void setCurrentItem(int index) {
+		if (count == 0) {
+			return;
+		}
+		currentItem = WheelPosition.floorMod(index, count);
+		int firstPage = window.getFirstPage();
+		int windowPages = window.getWindowPages();
+		window.setCurrentItem(currentItem, visibleItems);
+		if (firstPage != window.getFirstPage() || windowPages != window.getWindowPages()) {
+			dropUnwantedPages();
+		}
+
+		int pageCount = window.getPageCount();
+		int page = window.getPage(currentItem);
+		for (int i = 0; i < window.getWindowPages(); i++) {
+			int wanted = WheelPosition.floorMod(window.getFirstPage() + i, pageCount);
+			if (wanted != page) {
+				touchPage(wanted);
+			}
+		}
+		touchPage(page);
+	}
+
+	/**
+	 * 数据源改变后重新读取总数并丢掉所有的页
+	 */
+	public void reload() {
+		generation++;
+		cancelPending();
+		pages.evictAll();
+		count = dataSource.getCount();
+		window.setItemCount(count);
+		currentItem = -1;
+		notifyDataInvalidatedEvent();
+	}
+
+	/**
+	 * 停止加载线程，适配器不再使用时调用
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		pending.clear();
+		currentItem = -1;
+		pages.evictAll();
+	}
+
+	/**
+	 * 获取每页的item数
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * 获取内存里的页数
+	 * @return the count of loaded pages
+	 */
+	public int getLoadedPageCount() {
+		return pages.size();
+	}
+
+	/**
+	 * 标记页为最近使用，还没加载时开始加载
+	 */
+	private void touchPage(int page) {
+		if (pages.get(page) == null) {
+			requestPage(page);
+		}
+	}
+
+	/**
+	 * 页是否还需要，也就是在可见item的页和前后各一页里，还没有当前item时都需要，加载线程也会调用
+	 */
+	private boolean isPageWanted(int page) {
+		return window.isWanted(page);
+	}
+
+	/**
+	 * 需要的页改变后把不再需要的页从加载队列里去掉
+	 */
+	private void dropUnwantedPages() {
+		for (int i = pending.size() - 1; i >= 0; i--) {
+			if (!isPageWanted(pending.keyAt(i))) {
+				executor.remove(pending.valueAt(i));
+				pending.removeAt(i);
+			}
+		}
+	}
+
+	/**
+	 * 把还没开始的加载任务全部从队列里去掉
+	 */
+	private void cancelPending() {
+		for (int i = 0; i < pending.size(); i++) {
+			executor.remove(pending.valueAt(i));
+		}
+		pending.clear();
+	}
+
+	/**
+	 * 在后台线程加载一页，已经在加载、不再需要或者已经停止时不做任何事
+	 */
+	private void requestPage(final int page) {
+		if (executor.isShutdown() || pending.get(page) != null || !isPageWanted(page)) {
+			return;
+		}
+
+		final int start = page * pageSize;
+		final int size = Math.min(pageSize, count - start);
+		final int requested = generation;
+		Runnable task = new Runnable() {
+			public void run() {
+				final Runnable task = this;
+				// 排队的时候轮子可能已经滚远了
+				if (!isPageWanted(page)) {
+					handler.post(new Runnable() {
+						public void run() {
+							drop(requested, page, task);
+						}
+					});
+					return;
+				}
+				List<T> items = dataSource.loadPage(start, size);
+				final Object[] data = items != null ? items.toArray() : new Object[0];
+				handler.post(new Runnable() {
+					public void run() {
+						deliver(requested, page, task, data);
+					}
+				});
+			}
+		};
+		pending.put(page, task);
+		executor.execute(task);
+	}
+
+	/**
+	 * 在主线程去掉没有加载的页，之后需要时可以重新请求
+	 */
+	private void drop(int requested, int page, Runnable task) {
+		if (requested == generation && pending.get(page) == task) {
+			pending.remove(page);
+		}
+	}
+
+	/**
+	 * 在主线程保存加载好的页，页在当前页附近时才刷新轮子
+	 */
+	private void deliver(int requested, int page, Runnable task, Object[] data) {
+		if (requested != generation || pending.get(page) != task) {
+			return;
+		}
+		pending.remove(page);
+		pages.put(page, data);
+		if (isPageWanted(page)) {
+			notifyDataChangedEvent();
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package kankan.wheel.widget.adapters;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * 固定大小图片的长图渲染器。
+ * 创建时把所有图片按顺序合成到一张竖直的长图里，
+ * 绘制时只需要一到两次drawBitmap，不需要item的View和缓存。
+ */
+public class SymbolStripRenderer implements WheelStripRenderer, LevelOfDetailRenderer {
+	// 合成的长图
+	private Bitmap strip;
+	private Canvas stripCanvas;
+	// 图片的大小
+	private final int itemWidth;
+	private final int itemHeight;
+	private final int itemsCount;
+
+	// 缩小的长图，第i个的边长是原图的1/2^(i+1)
+	private Bitmap[] reducedStrips = new Bitmap[0];
+	private Canvas[] reducedCanvases = new Canvas[0];
+	// 当前的细节级别，0是原图
+	private int levelOfDetail;
+	// 放大缩小的长图时使用
+	private final Paint reducedPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	// 绘制时使用的区域
+	private final Rect src = new Rect();
+	private final Rect dst = new Rect();
+
+	/**
+	 * 构造函数，合成长图。合成后可以回收传入的图片。
+	 * 还没有加载的图片可以传null，位置先空着，加载后用{@link #setSymbol(int, Bitmap)}补上。
+	 * @param symbols the symbol bitmaps in item order
+	 * @param itemWidth the item width
+	 * @param itemHeight the item height
+	 */
+	public SymbolStripRenderer(Bitmap[] symbols, int itemWidth, int itemHeight) {
+		this.itemWidth = itemWidth;
+		this.itemHeight = itemHeight;
+		this.itemsCount = symbols.length;
+
+		strip = Bitmap.createBitmap(itemWidth, Math.max(itemHeight * itemsCount, 1), Bitmap.Config.ARGB_8888);
+		stripCanvas = new Canvas(strip);
+		for (int i = 0; i < itemsCount; i++) {
+			if (symbols[i] != null) {
+				setSymbol(i, symbols[i]);
+			}
+		}
+	}
+
+	/**
+	 * 把图片画到长图中空着的位置
+	 * @param index the item index
+	 * @param symbol the symbol bitmap
+	 */
+	public void setSymbol(int index, Bitmap symbol) {
+		if (strip == null || index < 0 || index >= itemsCount) {
+			return;
+		}
+		src.set(0, 0, symbol.getWidth(), symbol.getHeight());
+		dst.set(0, index * itemHeight, itemWidth, (index + 1) * itemHeight);
+		stripCanvas.drawBitmap(symbol, src, dst, null);
+
+		for (int i = 0; i < reducedStrips.length; i++) {
+			int shift = i + 1;
+			dst.set(0, (index * itemHeight) >> shift, itemWidth >> shift, ((index + 1) * itemHeight) >> shift);
+			reducedCanvases[i].drawBitmap(symbol, src, dst, reducedPaint);
+		}
+	}
+
+	/**
+	 * 预先生成缩小的长图，之后可以使用1到levels级的细节级别。
+	 * 第i级的长图边长是原图的1/2^i。
+	 * @param levels the count of reduced levels
+	 */
+	public void setReducedLevels(int levels) {
+		recycleReduced();
+		if (strip == null) {
+			return;
+		}
+
+		levels = Math.max(levels, 0);
+		reducedStrips = new Bitmap[levels];
+		reducedCanvases = new Canvas[levels];
+		src.set(0, 0, strip.getWidth(), strip.getHeight());
+		for (int i = 0; i < levels; i++) {
+			int shift = i + 1;
+			// createScaledBitmap可能返回不可修改的图，之后不能再画，所以自己创建再缩小画进去
+			int width = Math.max(itemWidth >> shift, 1);
+			int height = Math.max(strip.getHeight() >> shift, 1);
+			reducedStrips[i] = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+			reducedCanvases[i] = new Canvas(reducedStrips[i]);
+			dst.set(0, 0, width, height);
+			reducedCanvases[i].drawBitmap(strip, src, dst, reducedPaint);
+		}
+		levelOfDetail = Math.min(levelOfDetail, levels);
+	}
+
+	@Override
+	public int getLevelOfDetailCount() {
+		return reducedStrips.length + 1;
+	}
+
+	@Override
+	public void setLevelOfDetail(int level) {
+		levelOfDetail = Math.max(0, Math.min(level, reducedStrips.length));
+	}
+
+	/**
+	 * 回收缩小的长图
+	 */
+	private void recycleReduced() {
+		for (int i = 0; i < reducedStrips.length; i++) {
+			reducedStrips[i].recycle();
+		}
+		reducedStrips = new Bitmap[0];
+		reducedCanvases = new Canvas[0];
+		levelOfDetail = 0;
+	}
+
+	/**
+	 * 获取合成的长图
+	 * @return the strip bitmap
+	 */
+	public Bitmap getStrip() {
+		return strip;
+	}
+
+	/**
+	 * 回收长图和缩小的长图，之后不再画任何东西
+	 */
+	public void recycle() {
+		recycleReduced();
+		if (strip != null) {
+			strip.recycle();
+			strip = null;
+			stripCanvas = null;
+		}
+	}
+
+	@Override
+	public int getItemWidth() {
+		return itemWidth;
+	}
+
+	@Override
+	public int getItemHeight() {
+		return itemHeight;
+	}
+
+	@Override
+	public void drawItem(Canvas canvas, int index, int width, int height) {
+		if (strip == null) {
+			return;
+		}
+		int w = Math.min(width, itemWidth);
+		int h = Math.min(height, itemHeight);
+		int top = index * itemHeight;
+		src.set(0, top, w, top + h);
+		dst.set(0, 0, w, h);
+		canvas.drawBitmap(strip, src, dst, null);
+	}
+
+	@Override
+	public void drawEmptyItem(Canvas canvas, int width, int height) {
+	}
+
+	@Override
+	public void drawStrip(Canvas canvas, int stripTop, int width, int height) {
+		int stripHeight = itemHeight * itemsCount;
+		if (strip == null || stripHeight == 0) {
+			return;
+		}
+
+		int w = Math.min(width, itemWidth);
+		int top = stripTop % stripHeight;
+		if (top < 0) {
+			top += stripHeight;
+		}
+
+		// 一般一到两次，窗口比长图高时需要更多次
+		int y = 0;
+		while (y < height) {
+			int h = Math.min(stripHeight - top, height - y);
+			dst.set(0, y, w, y + h);
+			if (levelOfDetail == 0) {
+				src.set(0, top, w, top + h);
+				canvas.drawBitmap(strip, src, dst, null);
+			} else {
+				int shift = levelOfDetail;
+				src.set(0, top >> shift, Math.max(w >> shift, 1), Math.max((top + h) >> shift, (top >> shift) + 1));
+				canvas.drawBitmap(reducedStrips[levelOfDetail - 1], src, dst, reducedPaint);
+			}
+			y += h;
+			top = 0;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package kankan.wheel.widget.adapters;
+
+import java.util.Arrays;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+/**
+ * 直接画文字的item渲染器。
+ * 所有item共用一个Paint，文字的宽度第一次画时测量后缓存在按item取模的小缓存里，
+ * 可见的item不会互相挤掉，缓存大小和item数无关；基线只在字体改变时计算一次，
+ * 每帧画文字不再测量，也不分配对象。
+ * 文字样式改变后缓存自动清空。
+ */
+public class TextItemRenderer implements WheelItemRenderer {
+	/** 缓存的文字宽度个数，2的幂，比可见item多得多 */
+	private static final int WIDTH_CACHE_SIZE = 64;
+
+	// 文字来源
+	private final TextWheelAdapter adapter;
+	private final int itemWidth;
+	private final int itemHeight;
+
+	// 所有item共用的画笔
+	private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	// 缓存的文字宽度和对应的item，item为-1表示没有缓存
+	private final int[] widthItems = new int[WIDTH_CACHE_SIZE];
+	private final float[] widths = new float[WIDTH_CACHE_SIZE];
+	// 文字基线到item顶部的距离
+	private int baseline;
+
+	/**
+	 * 构造函数
+	 * @param adapter the adapter providing labels
+	 * @param itemWidth the item width in pixels
+	 * @param itemHeight the item height in pixels
+	 */
+	public TextItemRenderer(TextWheelAdapter adapter, int itemWidth, int itemHeight) {
+		this.adapter = adapter;
+		this.itemWidth = itemWidth;
+		this.itemHeight = itemHeight;
+		paint.setTextAlign(Paint.Align.LEFT);
+		invalidateMeasurements();
+	}
+
+	/**
+	 * 设置文字大小
+	 * @param textSize the text size in pixels
+	 */
+	public void setTextSize(float textSize) {
+		paint.setTextSize(textSize);
+		invalidateMeasurements();
+	}
+
+	/**
+	 * 设置文字颜色
+	 * @param color the text color
+	 */
+	public void setColor(int color) {
+		paint.setColor(color);
+	}
+
+	/**
+	 * 设置字体
+	 * @param typeface the typeface
+	 */
+	public void setTypeface(Typeface typeface) {
+		paint.setTypeface(typeface);
+		invalidateMeasurements();
+	}
+
+	/**
+	 * 适配器的文字改变后清空缓存的宽度
+	 */
+	public void invalidateMeasurements() {
+		Arrays.fill(widthItems, -1);
+		Paint.FontMetricsInt metrics = paint.getFontMetricsInt();
+		baseline = (itemHeight - (metrics.descent - metrics.ascent)) / 2 - metrics.ascent;
+	}
+
+	@Override
+	public int getItemWidth() {
+		return itemWidth;
+	}
+
+	@Override
+	public int getItemHeight() {
+		return itemHeight;
+	}
+
+	@Override
+	public void drawItem(Canvas canvas, int index, int width, int height) {
+		if (index < 0 || index >= adapter.getItemsCount()) {
+			return;
+		}
+		char[] label = adapter.getLabel(index);
+		int length = adapter.getLabelLength();
+		canvas.drawText(label, 0, length, (width - getLabelWidth(index, label, length)) / 2, baseline, paint);
+	}
+
+	@Override
+	public void drawEmptyItem(Canvas canvas, int width, int height) {
+	}
+
+	/**
+	 * 获取文字宽度，没有测量过时测量并缓存
+	 */
+	private float getLabelWidth(int index, char[] label, int length) {
+		int slot = index & (WIDTH_CACHE_SIZE - 1);
+		if (widthItems[slot] != index) {
+			widths[slot] = paint.measureText(label, 0, length);
+			widthItems[slot] = index;
+		}
+		return widths[slot];
+	}
+}
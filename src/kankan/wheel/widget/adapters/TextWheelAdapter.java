@@ -0,0 +1,159 @@
+package kankan.wheel.widget.adapters;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * 文字轮子的适配器，文字按char[]保存。
+ * 配合{@link #createRenderer(int, int, float, int)}创建的渲染器使用时，文字直接画到轮子的Canvas上，
+ * 不创建任何View；没有设置渲染器时才为每个可见item创建TextView。
+ * 数字范围的文字不保存，每次写进同一个缓冲区，范围再大也不占内存。
+ */
+public class TextWheelAdapter extends AbstractWheelAdapter {
+	/** 默认的文字大小 */
+	public static final float DEF_TEXT_SIZE = 24;
+
+	/** 数字文字最长的字符数，Integer.MIN_VALUE的长度 */
+	private static final int MAX_NUMBER_LENGTH = 11;
+
+	// 文字，数字范围时为null
+	private final char[][] labels;
+	// 数字范围，labels为null时使用
+	private final int minValue;
+	private final int count;
+	// 数字文字的缓冲区，所有数字共用
+	private final char[] numberBuffer;
+	// 上次获取的文字长度
+	private int labelLength;
+
+	private final Context context;
+
+	/**
+	 * 构造函数
+	 * @param context the current context
+	 * @param items the labels
+	 */
+	public TextWheelAdapter(Context context, CharSequence[] items) {
+		this.context = context;
+		this.labels = new char[items.length][];
+		for (int i = 0; i < items.length; i++) {
+			labels[i] = items[i].toString().toCharArray();
+		}
+		this.minValue = 0;
+		this.count = items.length;
+		this.numberBuffer = null;
+	}
+
+	/**
+	 * 数字范围的构造函数
+	 * @param context the current context
+	 * @param minValue the first number
+	 * @param maxValue the last number, included
+	 * @throws IllegalArgumentException if the range has more than Integer.MAX_VALUE numbers
+	 */
+	public TextWheelAdapter(Context context, int minValue, int maxValue) {
+		// 在long里计算，int相减会溢出
+		long size = (long) maxValue - minValue + 1;
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Range is too large: " + minValue + ".." + maxValue);
+		}
+		this.context = context;
+		this.labels = null;
+		this.minValue = minValue;
+		this.count = (int) Math.max(size, 0);
+		this.numberBuffer = new char[MAX_NUMBER_LENGTH];
+	}
+
+	@Override
+	public int getItemsCount() {
+		return count;
+	}
+
+	/**
+	 * 获取item的文字，文字长度用{@link #getLabelLength()}获取。
+	 * 返回的数组不能修改，数字范围的文字在下次调用时被覆盖
+	 * @param index the item index
+	 * @return the label characters
+	 */
+	public char[] getLabel(int index) {
+		if (labels != null) {
+			char[] label = labels[index];
+			labelLength = label.length;
+			return label;
+		}
+		labelLength = formatNumber(minValue + index, numberBuffer);
+		return numberBuffer;
+	}
+
+	/**
+	 * 获取上次{@link #getLabel(int)}返回的文字长度
+	 * @return the count of label characters
+	 */
+	public int getLabelLength() {
+		return labelLength;
+	}
+
+	@Override
+	public View getItem(int index, View convertView, ViewGroup parent) {
+		TextView text;
+		if (convertView instanceof TextView) {
+			text = (TextView) convertView;
+		} else {
+			text = new TextView(context);
+			text.setGravity(Gravity.CENTER);
+			text.setTextSize(DEF_TEXT_SIZE);
+		}
+		if (labels != null) {
+			char[] label = labels[index];
+			text.setText(label, 0, label.length);
+		} else {
+			// TextView保留传入的数组，不能用共用的缓冲区
+			text.setText(Integer.toString(minValue + index));
+		}
+		return text;
+	}
+
+	/**
+	 * 创建直接画文字的渲染器
+	 * @param itemWidth the item width in pixels
+	 * @param itemHeight the item height in pixels
+	 * @param textSize the text size in pixels
+	 * @param color the text color
+	 * @return the renderer
+	 */
+	public TextItemRenderer createRenderer(int itemWidth, int itemHeight, float textSize, int color) {
+		TextItemRenderer renderer = new TextItemRenderer(this, itemWidth, itemHeight);
+		renderer.setTextSize(textSize);
+		renderer.setColor(color);
+		return renderer;
+	}
+
+	/**
+	 * 把数字写进缓冲区的开头，不分配对象
+	 * @return the count of characters written
+	 */
+	private static int formatNumber(int value, char[] buffer) {
+		// 在long里取反，Integer.MIN_VALUE取反会溢出
+		long rest = value;
+		int start = 0;
+		if (rest < 0) {
+			buffer[start++] = '-';
+			rest = -rest;
+		}
+		int end = start;
+		do {
+			buffer[end++] = (char) ('0' + rest % 10);
+			rest /= 10;
+		} while (rest != 0);
+		// 数字是倒着写的，翻转过来
+		for (int i = start, j = end - 1; i < j; i++, j--) {
+			char c = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = c;
+		}
+		return end;
+	}
+}
@@ -0,0 +1,41 @@
+package kankan.wheel.widget.adapters;
+
+import android.graphics.Canvas;
+
+/**
+ * 直接绘制轮子item的渲染器。
+ * 设置给{@link kankan.wheel.widget.WheelView#setItemRenderer(WheelItemRenderer)}后，
+ * 轮子不再创建item的View，而是在onDraw里按偏移直接画到Canvas上，
+ * 滚动过程中不会触发任何measure和layout。
+ * item的数目仍然由{@link WheelViewAdapter#getItemsCount()}决定。
+ */
+public interface WheelItemRenderer {
+	/**
+	 * 获取item的宽度，轮子测量宽度时使用
+	 * @return the item width in pixels
+	 */
+	public int getItemWidth();
+
+	/**
+	 * 获取item的高度，所有item的高度必须一致
+	 * @return the item height in pixels
+	 */
+	public int getItemHeight();
+
+	/**
+	 * 画出指定的item，Canvas已经平移到item的左上角
+	 * @param canvas the canvas for drawing
+	 * @param index the item index, already normalized to the adapter range
+	 * @param width the available item width
+	 * @param height the item height
+	 */
+	public void drawItem(Canvas canvas, int index, int width, int height);
+
+	/**
+	 * 画出非循环轮子头尾的空item，Canvas已经平移到item的左上角
+	 * @param canvas the canvas for drawing
+	 * @param width the available item width
+	 * @param height the item height
+	 */
+	public void drawEmptyItem(Canvas canvas, int width, int height);
+}
@@ -0,0 +1,19 @@
+package kankan.wheel.widget.adapters;
+
+import android.graphics.Canvas;
+
+/**
+ * 把所有item预先画成一条竖直长图的渲染器。
+ * 循环轮子使用这种渲染器时，每帧只按滚动位置从长图上截取可见的窗口，
+ * 不再逐个画item。
+ */
+public interface WheelStripRenderer extends WheelItemRenderer {
+	/**
+	 * 画出长图的一段窗口，超出长图末尾的部分从开头接上
+	 * @param canvas the canvas for drawing, translated to the window left top
+	 * @param stripTop the strip position shown at the window top, may be out of the strip bounds
+	 * @param width the window width
+	 * @param height the window height
+	 */
+	public void drawStrip(Canvas canvas, int stripTop, int width, int height);
+}
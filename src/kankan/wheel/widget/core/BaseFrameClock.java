@@ -0,0 +1,99 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Frame clock keeping its own callbacks queue.
+ * A single frame request is scheduled for any number of callbacks, and all
+ * of them are called in one tick. Callbacks posted while a frame is
+ * dispatched are called on the following frame.
+ */
+public abstract class BaseFrameClock implements FrameClock {
+	// Callbacks waiting for the next frame
+	private FrameCallback[] pending = new FrameCallback[4];
+	private int pendingCount;
+
+	// Callbacks of the frame being dispatched
+	private FrameCallback[] running = new FrameCallback[4];
+	private int runningCount;
+
+	@Override
+	public void postFrameCallback(FrameCallback callback) {
+		for (int i = 0; i < pendingCount; i++) {
+			if (pending[i] == callback) {
+				return;
+			}
+		}
+
+		if (pendingCount == pending.length) {
+			FrameCallback[] grown = new FrameCallback[pending.length * 2];
+			System.arraycopy(pending, 0, grown, 0, pendingCount);
+			pending = grown;
+		}
+		pending[pendingCount++] = callback;
+
+		if (pendingCount == 1) {
+			scheduleFrame();
+		}
+	}
+
+	@Override
+	public void removeFrameCallback(FrameCallback callback) {
+		for (int i = 0; i < runningCount; i++) {
+			if (running[i] == callback) {
+				running[i] = null;
+			}
+		}
+
+		for (int i = 0; i < pendingCount; i++) {
+			if (pending[i] == callback) {
+				System.arraycopy(pending, i + 1, pending, i, pendingCount - i - 1);
+				pending[--pendingCount] = null;
+				if (pendingCount == 0) {
+					cancelFrame();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Tests whether any callback waits for a frame
+	 * @return true if a frame is requested
+	 */
+	public boolean hasPendingCallbacks() {
+		return pendingCount > 0;
+	}
+
+	/**
+	 * Calls all the pending callbacks. To be called by subclasses on each frame.
+	 * @param frameTimeNanos the frame start time in nanoseconds
+	 */
+	protected void dispatchFrame(long frameTimeNanos) {
+		FrameCallback[] callbacks = pending;
+		pending = running;
+		running = callbacks;
+		runningCount = pendingCount;
+		pendingCount = 0;
+		if (pending.length < running.length) {
+			pending = new FrameCallback[running.length];
+		}
+
+		for (int i = 0; i < runningCount; i++) {
+			FrameCallback callback = running[i];
+			if (callback != null) {
+				running[i] = null;
+				callback.doFrame(frameTimeNanos);
+			}
+		}
+		runningCount = 0;
+	}
+
+	/**
+	 * Requests the next frame
+	 */
+	protected abstract void scheduleFrame();
+
+	/**
+	 * Cancels requested frame, there are no callbacks left
+	 */
+	protected abstract void cancelFrame();
+}
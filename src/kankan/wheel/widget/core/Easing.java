@@ -0,0 +1,14 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Easing curve of a timed scroll.
+ * Has the same contract as android.view.animation.Interpolator.
+ */
+public interface Easing {
+	/**
+	 * Maps elapsed fraction of the animation to the scrolled fraction
+	 * @param input the elapsed fraction, from 0 to 1
+	 * @return the scrolled fraction, 0 at start and 1 at the end
+	 */
+	float getInterpolation(float input);
+}
@@ -0,0 +1,37 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Common easing curves for timed scrolls and spins.
+ */
+public final class Easings {
+	/** Constant speed */
+	public static final Easing LINEAR = new Easing() {
+		@Override
+		public float getInterpolation(float input) {
+			return input;
+		}
+	};
+
+	/** Starts at full speed and slows down to the end, like a reel stopping */
+	public static final Easing DECELERATE = new Easing() {
+		@Override
+		public float getInterpolation(float input) {
+			float x = 1.0f - input;
+			return 1.0f - x * x * x;
+		}
+	};
+
+	/** Speeds up at start and slows down at the end */
+	public static final Easing ACCELERATE_DECELERATE = new Easing() {
+		@Override
+		public float getInterpolation(float input) {
+			return (float) (Math.cos((input + 1) * Math.PI) / 2.0) + 0.5f;
+		}
+	};
+
+	/** Default easing of android.widget.Scroller */
+	public static final Easing VISCOUS_FLUID = ScrollPhysics.VISCOUS_FLUID;
+
+	private Easings() {
+	}
+}
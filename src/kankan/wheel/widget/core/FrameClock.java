@@ -0,0 +1,32 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Source of display frames for wheel animations.
+ * Each posted callback is called once on the next frame with the frame
+ * timestamp; callbacks that keep animating post themselves again.
+ */
+public interface FrameClock {
+	/**
+	 * Frame callback interface
+	 */
+	public interface FrameCallback {
+		/**
+		 * Called once per frame
+		 * @param frameTimeNanos the frame start time in nanoseconds
+		 */
+		void doFrame(long frameTimeNanos);
+	}
+
+	/**
+	 * Posts callback to be called on the next frame.
+	 * Posting a callback that is already pending has no effect.
+	 * @param callback the frame callback
+	 */
+	void postFrameCallback(FrameCallback callback);
+
+	/**
+	 * Removes pending callback
+	 * @param callback the frame callback
+	 */
+	void removeFrameCallback(FrameCallback callback);
+}
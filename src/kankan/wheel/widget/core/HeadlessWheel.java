@@ -0,0 +1,430 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Wheel without a view, for replaying spins off-device as fast as frames come.
+ * It runs the scrolling of WheelView on the same core pieces: the
+ * {@link ScrollEngine} state machine, {@link WheelGeometry} for scrolling,
+ * offset limits and the items range, and {@link WheelPosition} for indices.
+ * Frames come from a {@link FrameClock}, usually a {@link ManualFrameClock}.
+ * <p>
+ * Each frame steps the animation, then does what WheelView.onDraw does:
+ * applies the scroll collected in the frame and rebuilds the items of the
+ * range. Both are done by {@link WheelItems}, as in WheelView; only the items
+ * go to an {@link ItemSink} instead of views.
+ */
+public class HeadlessWheel {
+	/**
+	 * Receives items and frames of the wheel
+	 */
+	public interface ItemSink {
+		/**
+		 * Called when an item enters the items range
+		 * @param index the item index, not normalized for cyclic wheels
+		 * @param adapterIndex the adapter index, or -1 for an empty item
+		 * @param first true if the item is added before the others
+		 */
+		void onItemAdded(int index, int adapterIndex, boolean first);
+
+		/**
+		 * Called when an item leaves the items range
+		 * @param index the item index, not normalized for cyclic wheels
+		 */
+		void onItemRemoved(int index);
+
+		/**
+		 * Called when the current item changes
+		 * @param oldItem the old current item
+		 * @param newItem the new current item
+		 * @param itemsPassed the items scrolled, negative when scrolling back
+		 */
+		void onItemChanged(int oldItem, int newItem, int itemsPassed);
+
+		/**
+		 * Called once per drawn frame, after the items are rebuilt
+		 * @param wheel the wheel
+		 * @param frameTimeNanos the frame time
+		 */
+		void onFrame(HeadlessWheel wheel, long frameTimeNanos);
+	}
+
+	// Frames
+	private final FrameClock frameClock;
+	private boolean isFramePosted;
+	private boolean isDrawPending;
+	private long frameCount;
+
+	// Scrolling
+	private final ScrollEngine engine;
+	private final WheelGeometry geometry = new WheelGeometry();
+	private final WheelPosition position = new WheelPosition();
+	private boolean isScrollingPerformed;
+
+	// Wheel
+	private int itemCount;
+	private int itemHeight;
+	private int viewHeight;
+	private boolean cyclic;
+	private int currentItem;
+	private int scrollingOffset;
+
+	// Items
+	private ItemSink sink;
+	private final WheelItems items = new WheelItems(new WheelItems.Callback() {
+		public boolean addItem(int index, boolean first) {
+			if (itemCount == 0) {
+				return false;
+			}
+			if (sink != null) {
+				sink.onItemAdded(index, position.isValidIndex(index) ? position.toIndex(index) : -1, first);
+			}
+			return true;
+		}
+
+		public void removeItem(int layoutPosition, int index) {
+			if (sink != null) {
+				sink.onItemRemoved(index);
+			}
+		}
+
+		public void onItemScrolled(int item, int itemsPassed) {
+			int old = currentItem;
+			currentItem = item;
+			if (sink != null) {
+				sink.onItemChanged(old, item, itemsPassed);
+			}
+		}
+
+		public void onScrollClamped() {
+			engine.stopScrolling();
+		}
+	});
+
+	/**
+	 * Constructor
+	 * @param frameClock the frame clock driving the wheel
+	 * @param deceleration the fling deceleration in pixels per second squared,
+	 *        see {@link ScrollPhysics#computeDeceleration(float, float)}
+	 */
+	public HeadlessWheel(FrameClock frameClock, float deceleration) {
+		this.frameClock = frameClock;
+		this.engine = new ScrollEngine(engineListener, deceleration);
+	}
+
+	/**
+	 * Sets wheel dimensions and items, the current item is reset to the first one
+	 * @param itemCount the count of adapter items
+	 * @param itemHeight the item height
+	 * @param viewHeight the wheel height
+	 * @param cyclic true if the wheel is cyclic
+	 */
+	public void setup(int itemCount, int itemHeight, int viewHeight, boolean cyclic) {
+		engine.touchDown();
+		engine.finishScrolling();
+		this.itemCount = itemCount;
+		this.itemHeight = itemHeight;
+		this.viewHeight = viewHeight;
+		this.cyclic = cyclic;
+		updateGeometry();
+		position.set(0, 0);
+		currentItem = 0;
+		scrollingOffset = 0;
+		items.clearScroll();
+		clearItems();
+		invalidate();
+	}
+
+	/**
+	 * Sets item sink, the items are added again on the next frame
+	 * @param sink the sink, or null
+	 */
+	public void setItemSink(ItemSink sink) {
+		clearItems();
+		this.sink = sink;
+		invalidate();
+	}
+
+	/**
+	 * Gets scrolling engine
+	 * @return the scroll engine
+	 */
+	public ScrollEngine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Gets current item
+	 * @return the current item
+	 */
+	public int getCurrentItem() {
+		return currentItem;
+	}
+
+	/**
+	 * Gets scrolling offset as of the last frame
+	 * @return the offset from the current item
+	 */
+	public int getScrollingOffset() {
+		return scrollingOffset;
+	}
+
+	/**
+	 * Gets virtual position, full revolutions of cyclic wheels included
+	 * @return the wheel position
+	 */
+	public WheelPosition getPosition() {
+		position.setOffset(scrollingOffset);
+		return position;
+	}
+
+	/**
+	 * Gets first item of the rebuilt range
+	 * @return the first item index
+	 */
+	public int getFirstItem() {
+		return items.getFirstItem();
+	}
+
+	/**
+	 * Gets count of items of the rebuilt range
+	 * @return the items count
+	 */
+	public int getLayoutItemsCount() {
+		return items.getCount();
+	}
+
+	/**
+	 * Gets count of drawn frames
+	 * @return the frame count
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Tests whether the wheel is scrolling
+	 * @return true if scrolling is started and not finished
+	 */
+	public boolean isScrolling() {
+		return isScrollingPerformed;
+	}
+
+	/**
+	 * Tests whether the wheel waits for frames
+	 * @return true if an animation runs, scrolling is not finished or a frame is not drawn yet
+	 */
+	public boolean isBusy() {
+		return engine.isAnimating() || isScrollingPerformed || isFramePosted;
+	}
+
+	/**
+	 * Sets current item without animation
+	 * @param index the item index
+	 */
+	public void setCurrentItem(int index) {
+		if (itemCount == 0) {
+			return;
+		}
+		applyPendingScroll();
+		if (index < 0 || index >= itemCount) {
+			if (!cyclic) {
+				return;
+			}
+			index = WheelPosition.floorMod(index, itemCount);
+		}
+		if (index != currentItem) {
+			scrollingOffset = 0;
+			int old = currentItem;
+			currentItem = index;
+			position.moveBy(index - old);
+			if (sink != null) {
+				sink.onItemChanged(old, index, index - old);
+			}
+			invalidate();
+		}
+	}
+
+	/**
+	 * Scrolls the wheel, as WheelView.scroll
+	 * @param itemsToScroll the items to scroll
+	 * @param time the scrolling duration
+	 */
+	public void scroll(int itemsToScroll, int time) {
+		applyPendingScroll();
+		engine.scroll(itemsToScroll * itemHeight - scrollingOffset, time);
+		postFrame();
+	}
+
+	/**
+	 * Spins to an item in one animation, as WheelView.spinTo
+	 * @param targetIndex the item to stop at
+	 * @param extraRevolutions the count of full revolutions before stopping, cyclic wheels only
+	 * @param durationMs the spin duration, 0 for the default one
+	 * @param easing the spin easing, or null for the default one
+	 * @return the item the wheel stops at, or -1 if the wheel has no items
+	 */
+	public int spinTo(int targetIndex, int extraRevolutions, int durationMs, Easing easing) {
+		if (itemCount == 0 || itemHeight == 0) {
+			return -1;
+		}
+		applyPendingScroll();
+		int itemsToScroll = geometry.spinScroll(currentItem, targetIndex, extraRevolutions);
+		engine.scroll(itemsToScroll * itemHeight + scrollingOffset, durationMs, easing);
+		postFrame();
+		return WheelPosition.floorMod((long) currentItem + itemsToScroll, itemCount);
+	}
+
+	/**
+	 * Touches the wheel, stops animation
+	 */
+	public void touchDown() {
+		engine.touchDown();
+	}
+
+	/**
+	 * Drags the wheel
+	 * @param distance the touch move distance
+	 */
+	public void touchScroll(int distance) {
+		engine.touchScroll(distance);
+	}
+
+	/**
+	 * Releases the wheel without a fling, it is justified
+	 */
+	public void touchUp() {
+		applyPendingScroll();
+		engine.justify();
+		postFrame();
+	}
+
+	/**
+	 * Releases the wheel with a fling
+	 * @param velocity the fling velocity in pixels per second, positive to increase the current item
+	 */
+	public void fling(int velocity) {
+		applyPendingScroll();
+		engine.fling(velocity);
+		postFrame();
+	}
+
+	/**
+	 * Stops scrolling, the wheel is justified on the next frame
+	 */
+	public void stopScrolling() {
+		engine.stopScrolling();
+	}
+
+	// engine callbacks, the same as the WheelView scrolling listener
+	private final ScrollEngine.Listener engineListener = new ScrollEngine.Listener() {
+		public void onStarted() {
+			isScrollingPerformed = true;
+		}
+
+		public void onScroll(int distance) {
+			if (items.addScroll(distance)) {
+				invalidate();
+			}
+		}
+
+		public void onFinished() {
+			applyPendingScroll();
+			isScrollingPerformed = false;
+			scrollingOffset = 0;
+			invalidate();
+		}
+
+		public void onJustify() {
+			applyPendingScroll();
+			engine.snapBack(scrollingOffset);
+		}
+	};
+
+	// frame callback, steps animation and draws. Scrolls of the step are drawn
+	// in the same frame, so the frame is posted again only while animating
+	private final FrameClock.FrameCallback frameCallback = new FrameClock.FrameCallback() {
+		public void doFrame(long frameTimeNanos) {
+			boolean animating = engine.isAnimating() && engine.step(frameTimeNanos / 1000000L);
+			isFramePosted = false;
+			if (isDrawPending) {
+				isDrawPending = false;
+				draw(frameTimeNanos);
+			}
+			if (animating) {
+				postFrame();
+			}
+		}
+	};
+
+	/**
+	 * Requests a frame
+	 */
+	private void postFrame() {
+		if (!isFramePosted) {
+			isFramePosted = true;
+			frameClock.postFrameCallback(frameCallback);
+		}
+	}
+
+	/**
+	 * Requests drawing on the next frame
+	 */
+	private void invalidate() {
+		isDrawPending = true;
+		postFrame();
+	}
+
+	/**
+	 * Draws a frame, as WheelView.onDraw does without the canvas
+	 */
+	private void draw(long frameTimeNanos) {
+		applyPendingScroll();
+		frameCount++;
+		if (itemCount > 0 && itemHeight > 0) {
+			rebuildItems();
+		}
+		if (sink != null) {
+			sink.onFrame(this, frameTimeNanos);
+		}
+	}
+
+	/**
+	 * Applies the scroll collected since the last frame
+	 */
+	private void applyPendingScroll() {
+		if (!items.isScrollPending()) {
+			return;
+		}
+		if (itemCount == 0 || itemHeight == 0) {
+			items.clearScroll();
+			return;
+		}
+		updateGeometry();
+		scrollingOffset = items.applyScroll(geometry, position, currentItem, scrollingOffset);
+	}
+
+	/**
+	 * Updates geometry with the wheel dimensions
+	 */
+	private void updateGeometry() {
+		geometry.setup(itemCount, itemHeight, viewHeight, cyclic);
+		position.setup(itemCount, cyclic);
+	}
+
+	/**
+	 * Rebuilds items of the range, as WheelView.rebuildItems
+	 * @return true if items are rebuilt
+	 */
+	private boolean rebuildItems() {
+		updateGeometry();
+		geometry.computeRange(currentItem, scrollingOffset);
+		return items.rebuild(geometry.getRangeFirst(), geometry.getRangeCount());
+	}
+
+	/**
+	 * Removes all items, as the wheel layout is cleared
+	 */
+	private void clearItems() {
+		items.recycleAll();
+		items.reset();
+	}
+}
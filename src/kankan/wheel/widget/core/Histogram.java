@@ -0,0 +1,164 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Fixed-bucket histogram of long values.
+ * Bucket i counts values below bounds[i] and not below bounds[i - 1],
+ * the last bucket counts values not below the last bound.
+ * Recording does not allocate, buckets are scanned linearly as there are only a few.
+ */
+public class Histogram {
+	// Upper bounds of buckets, ascending
+	private final long[] bounds;
+	// Counts, one more than bounds
+	private final long[] counts;
+	// Totals
+	private long totalCount;
+	private long sum;
+	private long max;
+
+	/**
+	 * Constructor
+	 * @param bounds the exclusive upper bounds of buckets, ascending
+	 */
+	public Histogram(long[] bounds) {
+		if (bounds.length == 0) {
+			throw new IllegalArgumentException("Histogram needs at least one bound");
+		}
+		this.bounds = bounds.clone();
+		this.counts = new long[bounds.length + 1];
+	}
+
+	/**
+	 * Copy constructor
+	 * @param source the histogram to copy
+	 */
+	public Histogram(Histogram source) {
+		this.bounds = source.bounds;
+		this.counts = source.counts.clone();
+		this.totalCount = source.totalCount;
+		this.sum = source.sum;
+		this.max = source.max;
+	}
+
+	/**
+	 * Records value
+	 * @param value the value to record
+	 */
+	public void record(long value) {
+		int i = 0;
+		while (i < bounds.length && value >= bounds[i]) {
+			i++;
+		}
+		counts[i]++;
+		totalCount++;
+		sum += value;
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Resets all counts
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = 0;
+		}
+		totalCount = 0;
+		sum = 0;
+		max = 0;
+	}
+
+	/**
+	 * Gets count of buckets
+	 * @return the bucket count
+	 */
+	public int getBucketCount() {
+		return counts.length;
+	}
+
+	/**
+	 * Gets bucket upper bound
+	 * @param bucket the bucket index
+	 * @return the exclusive upper bound, Long.MAX_VALUE for the last bucket
+	 */
+	public long getBound(int bucket) {
+		return bucket < bounds.length ? bounds[bucket] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Gets bucket count
+	 * @param bucket the bucket index
+	 * @return the count of values in the bucket
+	 */
+	public long getCount(int bucket) {
+		return counts[bucket];
+	}
+
+	/**
+	 * Gets count of recorded values
+	 * @return the total count
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Gets sum of recorded values
+	 * @return the sum
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * Gets maximum recorded value
+	 * @return the maximum, 0 if nothing is recorded
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets mean of recorded values
+	 * @return the mean, 0 if nothing is recorded
+	 */
+	public double getMean() {
+		return totalCount == 0 ? 0 : (double) sum / totalCount;
+	}
+
+	/**
+	 * Gets upper bound of the bucket containing the percentile
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the bucket upper bound, or the maximum for the last bucket
+	 */
+	public long getPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(totalCount * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(bounds[i], max);
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < counts.length; i++) {
+			if (i > 0) {
+				sb.append(' ');
+			}
+			sb.append(i < bounds.length ? "<" + bounds[i] : ">=" + bounds[bounds.length - 1]);
+			sb.append(':').append(counts[i]);
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,101 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Frame clock advanced by hand. Used to drive wheel animations
+ * off-device and in simulations, where frames come as fast as needed.
+ */
+public class ManualFrameClock extends BaseFrameClock {
+	/** Frame interval of a 60 Hz display */
+	public static final long DEF_FRAME_INTERVAL_NANOS = 16666667L;
+
+	// Current time
+	private long frameTimeNanos;
+	// Frame interval used by nextFrame()
+	private long frameIntervalNanos;
+
+	/**
+	 * Constructor for a 60 Hz clock starting at zero time
+	 */
+	public ManualFrameClock() {
+		this(0, DEF_FRAME_INTERVAL_NANOS);
+	}
+
+	/**
+	 * Constructor
+	 * @param startTimeNanos the initial time
+	 * @param frameIntervalNanos the interval between frames
+	 */
+	public ManualFrameClock(long startTimeNanos, long frameIntervalNanos) {
+		this.frameTimeNanos = startTimeNanos;
+		this.frameIntervalNanos = frameIntervalNanos;
+	}
+
+	/**
+	 * Gets current time
+	 * @return the time of the last frame in nanoseconds
+	 */
+	public long getFrameTimeNanos() {
+		return frameTimeNanos;
+	}
+
+	/**
+	 * Gets current time
+	 * @return the time of the last frame in milliseconds
+	 */
+	public long getFrameTimeMillis() {
+		return frameTimeNanos / 1000000L;
+	}
+
+	/**
+	 * Gets frame interval
+	 * @return the interval between frames in nanoseconds
+	 */
+	public long getFrameIntervalNanos() {
+		return frameIntervalNanos;
+	}
+
+	/**
+	 * Advances time by one frame interval and dispatches the frame
+	 * @return true if callbacks are still waiting for a frame
+	 */
+	public boolean nextFrame() {
+		return advance(frameIntervalNanos);
+	}
+
+	/**
+	 * Advances time and dispatches a frame if any callback waits for it
+	 * @param nanos the time to advance
+	 * @return true if callbacks are still waiting for a frame
+	 */
+	public boolean advance(long nanos) {
+		frameTimeNanos += nanos;
+		if (hasPendingCallbacks()) {
+			dispatchFrame(frameTimeNanos);
+		}
+		return hasPendingCallbacks();
+	}
+
+	/**
+	 * Runs frames until no callback is left or frames limit is reached
+	 * @param maxFrames the maximum count of frames to run
+	 * @return the count of frames run
+	 */
+	public int runUntilIdle(int maxFrames) {
+		int frames = 0;
+		while (frames < maxFrames && hasPendingCallbacks()) {
+			nextFrame();
+			frames++;
+		}
+		return frames;
+	}
+
+	@Override
+	protected void scheduleFrame() {
+		// frames are run by hand
+	}
+
+	@Override
+	protected void cancelFrame() {
+		// frames are run by hand
+	}
+}
@@ -0,0 +1,148 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Pages of a paged wheel that are wanted around the current item: every page
+ * holding a visible item, plus one page before and one page after them for
+ * prefetching. Items are split into pages of a fixed size and the window
+ * wraps around like a cyclic wheel.
+ * <p>
+ * The window is set on the main thread and may be tested from a loader
+ * thread: it is published as one volatile value.
+ */
+public class PageWindow {
+	/** Count of pages prefetched on each side of the visible pages */
+	public static final int PREFETCH_PAGES = 1;
+
+	private final int pageSize;
+	private volatile int itemCount;
+	// first page in the high half, count of pages in the low half, 0 if all pages are wanted
+	private volatile long window;
+
+	/**
+	 * Constructor
+	 * @param pageSize the count of items per page, at least 1
+	 */
+	public PageWindow(int pageSize) {
+		this.pageSize = Math.max(pageSize, 1);
+	}
+
+	/**
+	 * Gets count of items per page
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Sets count of items, all pages are wanted until the current item is set
+	 * @param itemCount the count of items
+	 */
+	public void setItemCount(int itemCount) {
+		this.itemCount = Math.max(itemCount, 0);
+		window = 0;
+	}
+
+	/**
+	 * Gets count of pages
+	 * @return the count of pages holding the items
+	 */
+	public int getPageCount() {
+		return (int) (((long) itemCount + pageSize - 1) / pageSize);
+	}
+
+	/**
+	 * Gets the page of an item
+	 * @param index the item index, wrapped around the items
+	 * @return the page index
+	 */
+	public int getPage(int index) {
+		return itemCount == 0 ? 0 : WheelPosition.floorMod(index, itemCount) / pageSize;
+	}
+
+	/**
+	 * Computes the most pages the window can hold
+	 * @param visibleItems the count of visible items
+	 * @param pageSize the count of items per page
+	 * @return the count of pages
+	 */
+	public static int getMaxWindowPages(int visibleItems, int pageSize) {
+		int span = 2 * getRadius(visibleItems) + 1;
+		pageSize = Math.max(pageSize, 1);
+		// a span starting at the last item of a page reaches one more page,
+		// one wrapping past a partly filled last page one more again
+		int pages = (span + pageSize - 2) / pageSize + 1;
+		if (pageSize > 1) {
+			pages++;
+		}
+		return pages + 2 * PREFETCH_PAGES;
+	}
+
+	/**
+	 * Moves the window to the current item
+	 * @param index the current item
+	 * @param visibleItems the count of visible items
+	 */
+	public void setCurrentItem(int index, int visibleItems) {
+		int pageCount = getPageCount();
+		if (pageCount == 0) {
+			window = 0;
+			return;
+		}
+		int radius = getRadius(visibleItems);
+		int count = pageCount;
+		int first = 0;
+		if (2L * radius + 1 < itemCount) {
+			// pages of the items around, past the last page they wrap to page count and up
+			int firstItem = WheelPosition.floorMod(index - radius, itemCount);
+			int lastItem = firstItem + 2 * radius;
+			int last = lastItem < itemCount ? lastItem / pageSize : pageCount + (lastItem - itemCount) / pageSize;
+			first = firstItem / pageSize - PREFETCH_PAGES;
+			count = Math.min(last + PREFETCH_PAGES - first + 1, pageCount);
+		}
+		if (count >= pageCount) {
+			window = ((long) 0 << 32) | pageCount;
+		} else {
+			window = ((long) WheelPosition.floorMod(first, pageCount) << 32) | count;
+		}
+	}
+
+	/**
+	 * Tests whether a page is wanted, may be called from any thread
+	 * @param page the page index
+	 * @return true if the page is in the window or the window is not set
+	 */
+	public boolean isWanted(int page) {
+		long w = window;
+		int count = (int) w;
+		int pageCount = getPageCount();
+		if (count == 0 || count >= pageCount) {
+			return true;
+		}
+		return WheelPosition.floorMod(page - (int) (w >>> 32), pageCount) < count;
+	}
+
+	/**
+	 * Gets first page of the window
+	 * @return the first page
+	 */
+	public int getFirstPage() {
+		return (int) (window >>> 32);
+	}
+
+	/**
+	 * Gets count of pages of the window
+	 * @return the count of wanted pages, 0 if the window is not set
+	 */
+	public int getWindowPages() {
+		return (int) window;
+	}
+
+	/**
+	 * Gets count of items on each side of the current item that may be laid out:
+	 * half the visible items and one more for the partly visible item
+	 */
+	private static int getRadius(int visibleItems) {
+		return Math.max(visibleItems, 1) / 2 + 1;
+	}
+}
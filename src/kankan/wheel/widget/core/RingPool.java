@@ -0,0 +1,163 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Fixed-capacity ring buffer of recycled objects.
+ * Objects are taken in the order they were put, the oldest object is evicted
+ * when the pool is full. Hit, miss and eviction counters are kept to check
+ * that the pool is large enough to avoid creating new objects.
+ * @param <T> the pooled type
+ */
+public class RingPool<T> {
+	// Pooled objects, head is the oldest one
+	private Object[] objects;
+	private int head;
+	private int size;
+
+	// Statistics
+	private long hits;
+	private long misses;
+	private long evictions;
+	private int highWaterMark;
+
+	/**
+	 * Constructor
+	 * @param maxSize the maximum count of pooled objects
+	 */
+	public RingPool(int maxSize) {
+		objects = new Object[Math.max(maxSize, 0)];
+	}
+
+	/**
+	 * Puts object to pool. Evicts the oldest object if pool is full.
+	 * @param object the object to pool
+	 */
+	public void put(T object) {
+		if (objects.length == 0) {
+			evictions++;
+			return;
+		}
+
+		if (size == objects.length) {
+			objects[head] = object;
+			head = (head + 1) % objects.length;
+			evictions++;
+		} else {
+			objects[(head + size) % objects.length] = object;
+			size++;
+			if (size > highWaterMark) {
+				highWaterMark = size;
+			}
+		}
+	}
+
+	/**
+	 * Takes the oldest object from pool
+	 * @return the pooled object or null if pool is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public T take() {
+		if (size == 0) {
+			misses++;
+			return null;
+		}
+
+		T object = (T) objects[head];
+		objects[head] = null;
+		head = (head + 1) % objects.length;
+		size--;
+		hits++;
+		return object;
+	}
+
+	/**
+	 * Removes all objects from pool. Statistics are kept.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			objects[(head + i) % objects.length] = null;
+		}
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Changes pool capacity. The newest objects are kept, the rest are evicted.
+	 * @param maxSize the maximum count of pooled objects
+	 */
+	public void setMaxSize(int maxSize) {
+		maxSize = Math.max(maxSize, 0);
+		if (maxSize == objects.length) {
+			return;
+		}
+
+		Object[] resized = new Object[maxSize];
+		int keep = Math.min(size, maxSize);
+		int skip = size - keep;
+		for (int i = 0; i < keep; i++) {
+			resized[i] = objects[(head + skip + i) % objects.length];
+		}
+		evictions += skip;
+
+		objects = resized;
+		head = 0;
+		size = keep;
+	}
+
+	/**
+	 * Gets pool capacity
+	 * @return the maximum count of pooled objects
+	 */
+	public int getMaxSize() {
+		return objects.length;
+	}
+
+	/**
+	 * Gets count of pooled objects
+	 * @return the count of objects in pool
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets count of takes served from pool
+	 * @return the hit count
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets count of takes from empty pool, each of them creates a new object
+	 * @return the miss count
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets count of objects dropped because pool was full
+	 * @return the eviction count
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Gets the maximum count of objects ever held by pool
+	 * @return the high-water mark
+	 */
+	public int getHighWaterMark() {
+		return highWaterMark;
+	}
+
+	/**
+	 * Resets all statistics counters
+	 */
+	public void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+		highWaterMark = size;
+	}
+}
@@ -0,0 +1,252 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Wheel scrolling state machine without Android dependencies.
+ * A scroll or a fling is animated until it stops, then the wheel is
+ * justified by a short scroll to the nearest item, then scrolling is finished.
+ * The engine is stepped by the caller once per frame with the frame time,
+ * it is a pure function of the started animation and the step times.
+ */
+public class ScrollEngine {
+	/**
+	 * Scrolling listener interface
+	 */
+	public interface Listener {
+		/**
+		 * Scrolling callback called when scrolling is performed.
+		 * @param distance the distance to scroll
+		 */
+		void onScroll(int distance);
+
+		/**
+		 * Starting callback called when scrolling is started
+		 */
+		void onStarted();
+
+		/**
+		 * Finishing callback called after justifying
+		 */
+		void onFinished();
+
+		/**
+		 * Justifying callback called to justify a view when scrolling is ended
+		 */
+		void onJustify();
+	}
+
+	/** Scrolling duration */
+	public static final int SCROLLING_DURATION = 400;
+
+	/** Minimum delta for scrolling */
+	public static final int MIN_DELTA_FOR_SCROLLING = 1;
+
+	// Phases
+	private static final int PHASE_IDLE = -1;
+	private static final int PHASE_SCROLL = 0;
+	private static final int PHASE_JUSTIFY = 1;
+	private int phase = PHASE_IDLE;
+
+	// Listener
+	private Listener listener;
+
+	// Scrolling
+	private ScrollPhysics physics;
+	private int lastScrollY;
+	private boolean isScrollingPerformed;
+
+	/**
+	 * Constructor
+	 * @param listener the scrolling listener
+	 * @param deceleration the fling deceleration in pixels per second squared
+	 */
+	public ScrollEngine(Listener listener, float deceleration) {
+		this.listener = listener;
+		this.physics = new ScrollPhysics(deceleration);
+	}
+
+	/**
+	 * Gets motion model
+	 * @return the scroll physics
+	 */
+	public ScrollPhysics getPhysics() {
+		return physics;
+	}
+
+	/**
+	 * Set the the specified scrolling easing. Stops current animation.
+	 * @param easing the easing, or null for the default one
+	 */
+	public void setEasing(Easing easing) {
+		physics.forceFinished(true);
+		physics.setEasing(easing);
+	}
+
+	/**
+	 * Scroll the wheel
+	 * @param distance the scrolling distance
+	 * @param time the scrolling duration, 0 for the default one
+	 */
+	public void scroll(int distance, int time) {
+		scroll(distance, time, null);
+	}
+
+	/**
+	 * Scroll the wheel with the specified easing
+	 * @param distance the scrolling distance
+	 * @param time the scrolling duration, 0 for the default one
+	 * @param easing the easing of this scroll, or null for the default one
+	 */
+	public void scroll(int distance, int time, Easing easing) {
+		lastScrollY = 0;
+		physics.startScroll(0, distance, time != 0 ? time : SCROLLING_DURATION, easing);
+		phase = PHASE_SCROLL;
+
+		startScrolling();
+	}
+
+	/**
+	 * Justifies the wheel by the specified offset.
+	 * Offsets smaller than the minimum delta are ignored.
+	 * @param offset the offset from the nearest item
+	 */
+	public void snapBack(int offset) {
+		if (Math.abs(offset) > MIN_DELTA_FOR_SCROLLING) {
+			scroll(offset, 0);
+		}
+	}
+
+	/**
+	 * Flings the wheel
+	 * @param velocity the fling velocity in pixels per second
+	 */
+	public void fling(int velocity) {
+		lastScrollY = 0;
+		final int maxY = 0x7FFFFFFF;
+		final int minY = -maxY;
+		physics.fling(lastScrollY, velocity, minY, maxY);
+		phase = PHASE_SCROLL;
+	}
+
+	/**
+	 * Stops animation, the wheel stays where it is until released
+	 */
+	public void touchDown() {
+		physics.forceFinished(true);
+		phase = PHASE_IDLE;
+	}
+
+	/**
+	 * Scrolls the wheel following the touch
+	 * @param distance the scrolling distance
+	 */
+	public void touchScroll(int distance) {
+		if (distance != 0) {
+			startScrolling();
+			listener.onScroll(distance);
+		}
+	}
+
+	/**
+	 * Stops scrolling, the wheel is justified on the next step
+	 */
+	public void stopScrolling() {
+		physics.forceFinished(true);
+	}
+
+	/**
+	 * Tests whether the engine needs steps
+	 * @return true if an animation is running
+	 */
+	public boolean isAnimating() {
+		return phase != PHASE_IDLE;
+	}
+
+	/**
+	 * Tests whether the justify animation is running
+	 * @return true if the wheel is justifying
+	 */
+	public boolean isJustifying() {
+		return phase == PHASE_JUSTIFY;
+	}
+
+	/**
+	 * Gets scrolling velocity
+	 * @param now the current time in milliseconds
+	 * @return the velocity in pixels per second
+	 */
+	public float getVelocity(long now) {
+		return phase == PHASE_IDLE ? 0 : physics.getCurrVelocity(now);
+	}
+
+	/**
+	 * Steps animation
+	 * @param now the frame time in milliseconds
+	 * @return true if the next step is needed
+	 */
+	public boolean step(long now) {
+		if (phase == PHASE_IDLE) {
+			return false;
+		}
+		int what = phase;
+
+		physics.computeOffset(now);
+		int currY = physics.getCurrY();
+		int delta = lastScrollY - currY;
+		lastScrollY = currY;
+		if (delta != 0) {
+			listener.onScroll(delta);
+		}
+
+		// scrolling is not finished when it comes to final Y
+		// so, finish it manually
+		if (Math.abs(currY - physics.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
+			physics.forceFinished(true);
+		}
+		if (!physics.isFinished()) {
+			return phase != PHASE_IDLE;
+		}
+
+		if (what == PHASE_SCROLL) {
+			justify();
+		} else if (phase == PHASE_JUSTIFY) {
+			phase = PHASE_IDLE;
+			finishScrolling();
+		}
+		return phase != PHASE_IDLE;
+	}
+
+	/**
+	 * Justifies wheel. Scrolling is finished at once if the wheel
+	 * is already aligned and no justify animation is started.
+	 */
+	public void justify() {
+		physics.forceFinished(true);
+		listener.onJustify();
+		if (physics.isFinished()) {
+			phase = PHASE_IDLE;
+			finishScrolling();
+		} else {
+			phase = PHASE_JUSTIFY;
+		}
+	}
+
+	/**
+	 * Starts scrolling
+	 */
+	private void startScrolling() {
+		if (!isScrollingPerformed) {
+			isScrollingPerformed = true;
+			listener.onStarted();
+		}
+	}
+
+	/**
+	 * Finishes scrolling
+	 */
+	public void finishScrolling() {
+		if (isScrollingPerformed) {
+			listener.onFinished();
+			isScrollingPerformed = false;
+		}
+	}
+}
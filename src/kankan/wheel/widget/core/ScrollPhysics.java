@@ -0,0 +1,297 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Scroll motion model without Android dependencies.
+ * A timed scroll follows an easing curve, the viscous fluid one of
+ * android.widget.Scroller by default. A fling decelerates with constant
+ * deceleration until it stops, the model of android.widget.Scroller before
+ * API 14. From API 14 on, Scroller flings follow a spline curve instead, so
+ * on those devices a fling of the same velocity now travels a different
+ * distance and slows down differently than with the platform Scroller.
+ * Positions are computed in closed form from the elapsed time, so the model
+ * can be stepped with any time delta and gives the same trajectory.
+ * 
+ * Animation start time is taken from the first computeOffset() call, so
+ * the model does not depend on the time base of the caller.
+ */
+public class ScrollPhysics {
+	/** Earth gravity, used to compute the constant fling deceleration */
+	public static final float GRAVITY_EARTH = 9.80665f;
+
+	/** Inches per meter */
+	private static final float INCHES_PER_METER = 39.37f;
+
+	/** Default scroll friction of android.view.ViewConfiguration */
+	public static final float DEF_SCROLL_FRICTION = 0.015f;
+
+	/** Viscous fluid easing, the default easing of timed scrolls, as in android.widget.Scroller */
+	public static final Easing VISCOUS_FLUID = new Easing() {
+		private static final float SCALE = 8.0f;
+		private final float normalize = 1.0f / compute(1.0f);
+
+		private float compute(float x) {
+			x *= SCALE;
+			if (x < 1.0f) {
+				x -= (1.0f - (float) Math.exp(-x));
+			} else {
+				float start = 0.36787944117f; // 1/e == exp(-1)
+				x = 1.0f - (float) Math.exp(1.0f - x);
+				x = start + x * (1.0f - start);
+			}
+			return x;
+		}
+
+		@Override
+		public float getInterpolation(float input) {
+			return compute(input) * normalize;
+		}
+	};
+
+	// Modes
+	private static final int SCROLL_MODE = 0;
+	private static final int FLING_MODE = 1;
+	private int mode;
+
+	// Start time is set on the first computed frame
+	private static final long UNSET = Long.MIN_VALUE;
+	private long startTime = UNSET;
+
+	private boolean finished = true;
+	private int startY;
+	private int finalY;
+	private int currY;
+	private int deltaY;
+	private int duration;
+
+	// Fling
+	private float velocity;
+	private float coeffY = 1.0f;
+	private int minY;
+	private int maxY;
+	private float deceleration;
+
+	private Easing easing = VISCOUS_FLUID;
+	// Easing of the current timed scroll
+	private Easing scrollEasing = VISCOUS_FLUID;
+
+	/**
+	 * Constructor
+	 * @param deceleration the fling deceleration in pixels per second squared
+	 */
+	public ScrollPhysics(float deceleration) {
+		this.deceleration = deceleration;
+	}
+
+	/**
+	 * Computes the constant fling deceleration from the density and friction,
+	 * as android.widget.Scroller did before API 14
+	 * @param pixelsPerInch the display density, 160 * density
+	 * @param friction the scroll friction
+	 * @return the deceleration in pixels per second squared
+	 */
+	public static float computeDeceleration(float pixelsPerInch, float friction) {
+		return GRAVITY_EARTH * INCHES_PER_METER * pixelsPerInch * friction;
+	}
+
+	/**
+	 * Sets easing of timed scrolls
+	 * @param easing the easing, or null for the viscous fluid one
+	 */
+	public void setEasing(Easing easing) {
+		this.easing = easing != null ? easing : VISCOUS_FLUID;
+	}
+
+	/**
+	 * Gets easing of timed scrolls
+	 * @return the easing
+	 */
+	public Easing getEasing() {
+		return easing;
+	}
+
+	/**
+	 * Sets fling deceleration
+	 * @param deceleration the deceleration in pixels per second squared
+	 */
+	public void setDeceleration(float deceleration) {
+		this.deceleration = deceleration;
+	}
+
+	/**
+	 * Gets fling deceleration
+	 * @return the deceleration in pixels per second squared
+	 */
+	public float getDeceleration() {
+		return deceleration;
+	}
+
+	/**
+	 * Starts timed scroll
+	 * @param startY the start position
+	 * @param dy the distance to scroll
+	 * @param duration the scroll duration in milliseconds
+	 */
+	public void startScroll(int startY, int dy, int duration) {
+		startScroll(startY, dy, duration, null);
+	}
+
+	/**
+	 * Starts timed scroll with the specified easing
+	 * @param startY the start position
+	 * @param dy the distance to scroll
+	 * @param duration the scroll duration in milliseconds
+	 * @param easing the easing of this scroll, or null for the default one
+	 */
+	public void startScroll(int startY, int dy, int duration, Easing easing) {
+		mode = SCROLL_MODE;
+		scrollEasing = easing != null ? easing : this.easing;
+		finished = false;
+		startTime = UNSET;
+		this.duration = duration;
+		this.startY = startY;
+		this.currY = startY;
+		this.deltaY = dy;
+		this.finalY = startY + dy;
+	}
+
+	/**
+	 * Starts fling
+	 * @param startY the start position
+	 * @param velocityY the initial velocity in pixels per second
+	 * @param minY the minimum position
+	 * @param maxY the maximum position
+	 */
+	public void fling(int startY, int velocityY, int minY, int maxY) {
+		mode = FLING_MODE;
+		finished = false;
+		startTime = UNSET;
+
+		velocity = Math.abs((float) velocityY);
+		coeffY = velocityY == 0 ? 1.0f : velocityY / velocity;
+		duration = (int) (1000 * velocity / deceleration);
+
+		int totalDistance = (int) ((velocity * velocity) / (2 * deceleration));
+
+		this.startY = startY;
+		this.currY = startY;
+		this.minY = minY;
+		this.maxY = maxY;
+		finalY = clamp(startY + Math.round(totalDistance * coeffY), minY, maxY);
+		deltaY = finalY - startY;
+	}
+
+	/**
+	 * Computes position at the specified time.
+	 * @param now the current time in milliseconds
+	 * @return false if the animation was already finished
+	 */
+	public boolean computeOffset(long now) {
+		if (finished) {
+			return false;
+		}
+
+		if (startTime == UNSET) {
+			startTime = now;
+		}
+
+		long elapsed = now - startTime;
+		if (elapsed < duration) {
+			currY = positionAt(elapsed);
+			if (mode == FLING_MODE && currY == finalY) {
+				finished = true;
+			}
+		} else {
+			currY = finalY;
+			finished = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes position of the current animation after the specified elapsed time.
+	 * @param elapsed the time since animation start in milliseconds
+	 * @return the position
+	 */
+	public int positionAt(long elapsed) {
+		if (elapsed >= duration) {
+			return finalY;
+		}
+		if (elapsed <= 0) {
+			return startY;
+		}
+
+		if (mode == SCROLL_MODE) {
+			float x = scrollEasing.getInterpolation(elapsed / (float) duration);
+			return startY + Math.round(x * deltaY);
+		} else {
+			float t = elapsed / 1000.0f;
+			float distance = velocity * t - deceleration * t * t / 2.0f;
+			return clamp(startY + Math.round(distance * coeffY), minY, maxY);
+		}
+	}
+
+	/**
+	 * Computes velocity of the current animation at the specified time.
+	 * @param now the current time in milliseconds
+	 * @return the velocity in pixels per second, signed as the scroll direction
+	 */
+	public float getCurrVelocity(long now) {
+		if (finished || startTime == UNSET) {
+			return 0;
+		}
+
+		long elapsed = now - startTime;
+		if (elapsed >= duration) {
+			return 0;
+		}
+
+		if (mode == FLING_MODE) {
+			return (velocity - deceleration * elapsed / 1000.0f) * coeffY;
+		}
+		return (positionAt(elapsed + 1) - positionAt(elapsed)) * 1000.0f;
+	}
+
+	/**
+	 * Stops animation
+	 * @param finished the new finished flag
+	 */
+	public void forceFinished(boolean finished) {
+		this.finished = finished;
+	}
+
+	/**
+	 * Tests whether animation is finished
+	 * @return true if finished
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Gets current position
+	 * @return the position computed by the last computeOffset() call
+	 */
+	public int getCurrY() {
+		return currY;
+	}
+
+	/**
+	 * Gets final position
+	 * @return the position the animation ends at
+	 */
+	public int getFinalY() {
+		return finalY;
+	}
+
+	/**
+	 * Gets animation duration
+	 * @return the duration in milliseconds
+	 */
+	public int getDuration() {
+		return duration;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return value < min ? min : value > max ? max : value;
+	}
+}
@@ -0,0 +1,208 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Wheel position math without Android dependencies: scrolling the current item
+ * by an offset, the range of items to show and the shortest path between items.
+ * Indices are mapped to the adapter range by {@link WheelPosition}.
+ * The wheel dimensions are set by {@link #setup(int, int, int, boolean)},
+ * results are kept in fields and read by getters, so nothing is allocated.
+ */
+public class WheelGeometry {
+	// Wheel dimensions
+	private int itemCount;
+	private int itemHeight;
+	private int viewHeight;
+	private boolean cyclic;
+
+	// Result of scroll
+	private int item;
+	private int offset;
+	private int itemsPassed;
+
+	// Result of computeRange
+	private int rangeFirst;
+	private int rangeCount;
+
+	/**
+	 * Sets wheel dimensions
+	 * @param itemCount the count of adapter items
+	 * @param itemHeight the item height
+	 * @param viewHeight the wheel height
+	 * @param cyclic true if the wheel is cyclic
+	 */
+	public void setup(int itemCount, int itemHeight, int viewHeight, boolean cyclic) {
+		this.itemCount = itemCount;
+		this.itemHeight = itemHeight;
+		this.viewHeight = viewHeight;
+		this.cyclic = cyclic;
+	}
+
+	/**
+	 * Calculates the items to scroll from one item to another.
+	 * Cyclic wheels go the shorter way around.
+	 * @param from the current item
+	 * @param to the target item, normalized
+	 * @return the items to scroll, negative to scroll back
+	 */
+	public int shortestScroll(int from, int to) {
+		int itemsToScroll = to - from;
+		if (cyclic) {
+			int scroll = itemCount + Math.min(to, from) - Math.max(to, from);
+			if (scroll < Math.abs(itemsToScroll)) {
+				itemsToScroll = itemsToScroll < 0 ? scroll : -scroll;
+			}
+		}
+		return itemsToScroll;
+	}
+
+	/**
+	 * Calculates the items to scroll to stop exactly at an item. Cyclic wheels
+	 * scroll forward only and add full revolutions, other wheels clamp the target.
+	 * @param currentItem the current item
+	 * @param targetIndex the item to stop at
+	 * @param extraRevolutions the count of full revolutions before stopping, cyclic wheels only
+	 * @return the items to scroll, negative to scroll back
+	 */
+	public int spinScroll(int currentItem, int targetIndex, int extraRevolutions) {
+		if (cyclic) {
+			int itemsToScroll = WheelPosition.floorMod(targetIndex, itemCount) - currentItem;
+			if (itemsToScroll < 0) {
+				itemsToScroll += itemCount;
+			}
+			return itemsToScroll + Math.max(extraRevolutions, 0) * itemCount;
+		}
+		return Math.max(0, Math.min(targetIndex, itemCount - 1)) - currentItem;
+	}
+
+	/**
+	 * Limits the scrolling offset to one wheel height either way.
+	 * Callers stop scrolling when the offset is limited.
+	 * @param scrollingOffset the scrolling offset
+	 * @return the limited offset
+	 */
+	public int clampOffset(int scrollingOffset) {
+		if (scrollingOffset > viewHeight) {
+			return viewHeight;
+		} else if (scrollingOffset < -viewHeight) {
+			return -viewHeight;
+		}
+		return scrollingOffset;
+	}
+
+	/**
+	 * Moves the current item by the scrolling offset. The new item and the remaining
+	 * offset are read by {@link #getItem()} and {@link #getOffset()}.
+	 * @param currentItem the current item
+	 * @param scrollingOffset the scrolling offset including the new scroll distance
+	 */
+	public void scroll(int currentItem, int scrollingOffset) {
+		int count = scrollingOffset / itemHeight;
+		int pos = currentItem - count;
+
+		int fixPos = scrollingOffset % itemHeight;
+		if (Math.abs(fixPos) <= itemHeight / 2) {
+			fixPos = 0;
+		}
+		if (cyclic && itemCount > 0) {
+			if (fixPos > 0) {
+				pos--;
+				count++;
+			} else if (fixPos < 0) {
+				pos++;
+				count--;
+			}
+			// fix position by rotating
+			pos = WheelPosition.floorMod(pos, itemCount);
+		} else {
+			if (pos < 0) {
+				count = currentItem;
+				pos = 0;
+			} else if (pos >= itemCount) {
+				count = currentItem - itemCount + 1;
+				pos = itemCount - 1;
+			} else if (pos > 0 && fixPos > 0) {
+				pos--;
+				count++;
+			} else if (pos < itemCount - 1 && fixPos < 0) {
+				pos++;
+				count--;
+			}
+		}
+
+		item = pos;
+		itemsPassed = -count;
+		offset = scrollingOffset - count * itemHeight;
+		if (offset > viewHeight) {
+			offset = offset % viewHeight + viewHeight;
+		}
+	}
+
+	/**
+	 * Gets current item after {@link #scroll(int, int)}
+	 * @return the new current item
+	 */
+	public int getItem() {
+		return item;
+	}
+
+	/**
+	 * Gets scrolling offset after {@link #scroll(int, int)}
+	 * @return the remaining scrolling offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets items passed by {@link #scroll(int, int)}
+	 * @return the count of items, negative when the current item decreases
+	 */
+	public int getItemsPassed() {
+		return itemsPassed;
+	}
+
+	/**
+	 * Calculates the range of items to show, read by {@link #getRangeFirst()}
+	 * and {@link #getRangeCount()}
+	 * @param currentItem the current item
+	 * @param scrollingOffset the scrolling offset
+	 */
+	public void computeRange(int currentItem, int scrollingOffset) {
+		int first = currentItem;
+		int count = 1;
+
+		while (count * itemHeight < viewHeight) {
+			first--;
+			count += 2; // top + bottom items
+		}
+
+		if (scrollingOffset != 0) {
+			if (scrollingOffset > 0) {
+				first--;
+			}
+			count++;
+
+			int emptyItems = scrollingOffset / itemHeight;
+			first -= emptyItems;
+			count += Math.asin(emptyItems);
+		}
+		rangeFirst = first;
+		rangeCount = count;
+	}
+
+	/**
+	 * Gets the first item of the range
+	 * @return the first item index
+	 */
+	public int getRangeFirst() {
+		return rangeFirst;
+	}
+
+	/**
+	 * Gets the count of items of the range
+	 * @return the items count
+	 */
+	public int getRangeCount() {
+		return rangeCount;
+	}
+}
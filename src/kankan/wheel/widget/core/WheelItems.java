@@ -0,0 +1,256 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Items of a wheel layout without Android dependencies: tracks the first item
+ * and the count of laid out items, decides which items are recycled, prepended
+ * and appended when the range moves, and coalesces scrolls until the next frame.
+ * <p>
+ * WheelView lays out item views and HeadlessWheel reports items to its sink,
+ * both drive this class through a {@link Callback}, so the two wheels rebuild
+ * the same items in the same order.
+ */
+public class WheelItems {
+	/**
+	 * Adds and removes items of the layout and follows the scroll
+	 */
+	public interface Callback {
+		/**
+		 * Adds item to the layout
+		 * @param index the item index, not normalized for cyclic wheels
+		 * @param first true to add the item before the others, otherwise after them
+		 * @return true if the item exists and is added
+		 */
+		boolean addItem(int index, boolean first);
+
+		/**
+		 * Removes item from the layout
+		 * @param position the item position in the layout
+		 * @param index the item index
+		 */
+		void removeItem(int position, int index);
+
+		/**
+		 * Called when the applied scroll changes the current item
+		 * @param item the new current item
+		 * @param itemsPassed the items scrolled, negative when scrolling back
+		 */
+		void onItemScrolled(int item, int itemsPassed);
+
+		/**
+		 * Called when the applied scroll reaches the offset limit, scrolling should stop
+		 */
+		void onScrollClamped();
+	}
+
+	private final Callback callback;
+
+	// Layout
+	private boolean isCreated;
+	private int firstItem;
+	private int count;
+
+	// Scroll collected since the last frame
+	private int pendingScroll;
+	private boolean isScrollPending;
+
+	/**
+	 * Constructor
+	 * @param callback the layout callback
+	 */
+	public WheelItems(Callback callback) {
+		this.callback = callback;
+	}
+
+	/**
+	 * Gets first item of the layout
+	 * @return the first item index
+	 */
+	public int getFirstItem() {
+		return firstItem;
+	}
+
+	/**
+	 * Gets count of laid out items
+	 * @return the items count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Rebuilds items of the range: items out of the range are removed, missing
+	 * items before the first one are prepended, the rest are appended
+	 * @param rangeFirst the first item of the range
+	 * @param rangeCount the count of items of the range
+	 * @return true if items are rebuilt
+	 */
+	public boolean rebuild(int rangeFirst, int rangeCount) {
+		int rangeLast = rangeFirst + rangeCount - 1;
+		boolean updated;
+		if (isCreated) {
+			int first = recycle(rangeFirst, rangeLast);
+			updated = firstItem != first;
+			firstItem = first;
+		} else {
+			isCreated = true;
+			updated = true;
+		}
+
+		if (!updated) {
+			updated = firstItem != rangeFirst || count != rangeCount;
+		}
+
+		if (firstItem > rangeFirst && firstItem <= rangeLast) {
+			for (int i = firstItem - 1; i >= rangeFirst; i--) {
+				if (!add(i, true)) {
+					break;
+				}
+				firstItem = i;
+			}
+		} else {
+			firstItem = rangeFirst;
+		}
+
+		int first = firstItem;
+		for (int i = count; i < rangeCount; i++) {
+			if (!add(firstItem + i, false) && count == 0) {
+				first++;
+			}
+		}
+		firstItem = first;
+
+		return updated;
+	}
+
+	/**
+	 * Rebuilds items around the current item for measuring
+	 * @param currentItem the current item
+	 * @param itemsAround the count of items on each side of the current one
+	 */
+	public void rebuildAround(int currentItem, int itemsAround) {
+		recycleAll();
+		isCreated = true;
+		for (int i = currentItem + itemsAround; i >= currentItem - itemsAround; i--) {
+			if (add(i, true)) {
+				firstItem = i;
+			}
+		}
+	}
+
+	/**
+	 * Removes all items, the first item is kept for the next rebuild
+	 */
+	public void recycleAll() {
+		recycle(0, -1);
+	}
+
+	/**
+	 * Forgets all items after the layout is cleared without the callback
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Forgets all items and the first item, the next rebuild starts over
+	 */
+	public void reset() {
+		isCreated = false;
+		firstItem = 0;
+		count = 0;
+	}
+
+	/**
+	 * Adds scroll distance, it is applied once by {@link #applyScroll}
+	 * @param distance the scroll distance
+	 * @return true if it is the first scroll since the last applied one
+	 */
+	public boolean addScroll(int distance) {
+		pendingScroll += distance;
+		if (isScrollPending) {
+			return false;
+		}
+		isScrollPending = true;
+		return true;
+	}
+
+	/**
+	 * Tests whether a scroll is waiting to be applied
+	 * @return true if a scroll is pending
+	 */
+	public boolean isScrollPending() {
+		return isScrollPending;
+	}
+
+	/**
+	 * Drops the pending scroll
+	 */
+	public void clearScroll() {
+		pendingScroll = 0;
+		isScrollPending = false;
+	}
+
+	/**
+	 * Applies the pending scroll: the current item is moved by the items passed,
+	 * then the offset is clamped to the view height
+	 * @param geometry the geometry set up with the wheel dimensions
+	 * @param position the wheel position, moved by the items passed
+	 * @param currentItem the current item
+	 * @param offset the scrolling offset
+	 * @return the new scrolling offset
+	 */
+	public int applyScroll(WheelGeometry geometry, WheelPosition position, int currentItem, int offset) {
+		int distance = pendingScroll;
+		clearScroll();
+		if (distance == 0) {
+			return offset;
+		}
+
+		geometry.scroll(currentItem, offset + distance);
+		position.moveBy(geometry.getItemsPassed());
+		if (geometry.getItem() != currentItem) {
+			callback.onItemScrolled(geometry.getItem(), geometry.getItemsPassed());
+		}
+
+		offset = geometry.getOffset();
+		int clamped = geometry.clampOffset(offset);
+		if (clamped != offset) {
+			callback.onScrollClamped();
+		}
+		return clamped;
+	}
+
+	/**
+	 * Removes items out of the range
+	 * @return the new first item
+	 */
+	private int recycle(int rangeFirst, int rangeLast) {
+		int first = firstItem;
+		int index = firstItem;
+		for (int i = 0; i < count;) {
+			if (index < rangeFirst || index > rangeLast) {
+				callback.removeItem(i, index);
+				count--;
+				if (i == 0) {
+					first++;
+				}
+			} else {
+				i++;
+			}
+			index++;
+		}
+		return first;
+	}
+
+	/**
+	 * Adds item through the callback
+	 * @return true if the item is added
+	 */
+	private boolean add(int index, boolean first) {
+		if (!callback.addItem(index, first)) {
+			return false;
+		}
+		count++;
+		return true;
+	}
+}
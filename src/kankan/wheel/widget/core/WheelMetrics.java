@@ -0,0 +1,247 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Wheel performance counters.
+ * Recording only updates primitive counters and fixed-bucket histograms,
+ * so it is cheap enough to stay enabled in the field. A copy of all counters
+ * is taken by {@link #snapshot(long, long)} to report or compare them.
+ * Recording is not thread-safe, the wheel records on the UI thread only.
+ */
+public class WheelMetrics {
+	/** Default frame budget, 60 frames per second */
+	public static final long DEF_FRAME_BUDGET_NANOS = 16666667;
+
+	/** Draw duration buckets in microseconds */
+	private static final long[] DRAW_BOUNDS = { 250, 500, 1000, 2000, 4000, 8000, 16000, 32000 };
+	/** Frame interval buckets in microseconds */
+	private static final long[] FRAME_BOUNDS = { 12000, 17500, 25000, 34000, 50000, 67000, 100000 };
+	/** Animation steps per spin buckets */
+	private static final long[] STEPS_BOUNDS = { 10, 25, 50, 100, 200, 400, 800 };
+
+	// Recording switch
+	private boolean enabled;
+	private long frameBudgetNanos = DEF_FRAME_BUDGET_NANOS;
+
+	// Histograms
+	private final Histogram drawTimes = new Histogram(DRAW_BOUNDS);
+	private final Histogram frameIntervals = new Histogram(FRAME_BOUNDS);
+	private final Histogram stepsPerSpin = new Histogram(STEPS_BOUNDS);
+
+	// Counters
+	private long framesOverBudget;
+	private long rebuilds;
+	private long adapterGetItemCalls;
+	private long spinSteps;
+	private long lastFrameTimeNanos = -1;
+
+	/**
+	 * Enables or disables recording
+	 * @param enabled true to record
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		lastFrameTimeNanos = -1;
+	}
+
+	/**
+	 * Tests whether recording is enabled
+	 * @return true if metrics are recorded
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets frame budget. Frame intervals longer than one and a half budgets
+	 * missed at least one display frame and are counted as over budget.
+	 * @param frameBudgetNanos the frame budget in nanoseconds
+	 */
+	public void setFrameBudgetNanos(long frameBudgetNanos) {
+		this.frameBudgetNanos = frameBudgetNanos;
+	}
+
+	/**
+	 * Records draw duration
+	 * @param durationNanos the draw duration in nanoseconds
+	 */
+	public void recordDraw(long durationNanos) {
+		if (enabled) {
+			drawTimes.record(durationNanos / 1000);
+		}
+	}
+
+	/**
+	 * Records animation step, the interval from the previous step of the same spin is recorded
+	 * @param frameTimeNanos the frame time in nanoseconds
+	 */
+	public void recordStep(long frameTimeNanos) {
+		if (!enabled) {
+			return;
+		}
+		spinSteps++;
+		if (lastFrameTimeNanos >= 0) {
+			long interval = frameTimeNanos - lastFrameTimeNanos;
+			frameIntervals.record(interval / 1000);
+			if (interval * 2 > frameBudgetNanos * 3) {
+				framesOverBudget++;
+			}
+		}
+		lastFrameTimeNanos = frameTimeNanos;
+	}
+
+	/**
+	 * Records end of animation, steps since the previous end are recorded as one spin
+	 */
+	public void recordSpinEnd() {
+		if (!enabled) {
+			return;
+		}
+		if (spinSteps > 0) {
+			stepsPerSpin.record(spinSteps);
+		}
+		spinSteps = 0;
+		lastFrameTimeNanos = -1;
+	}
+
+	/**
+	 * Records items rebuild that changed the items layout
+	 */
+	public void recordRebuild() {
+		if (enabled) {
+			rebuilds++;
+		}
+	}
+
+	/**
+	 * Records adapter item request
+	 */
+	public void recordGetItem() {
+		if (enabled) {
+			adapterGetItemCalls++;
+		}
+	}
+
+	/**
+	 * Resets all counters
+	 */
+	public void reset() {
+		drawTimes.reset();
+		frameIntervals.reset();
+		stepsPerSpin.reset();
+		framesOverBudget = 0;
+		rebuilds = 0;
+		adapterGetItemCalls = 0;
+		spinSteps = 0;
+		lastFrameTimeNanos = -1;
+	}
+
+	/**
+	 * Copies all counters
+	 * @param recycleHits the recycled view hits, kept by the view pool
+	 * @param recycleMisses the recycled view misses, kept by the view pool
+	 * @return the snapshot
+	 */
+	public Snapshot snapshot(long recycleHits, long recycleMisses) {
+		return new Snapshot(this, recycleHits, recycleMisses);
+	}
+
+	/**
+	 * Immutable copy of wheel metrics
+	 */
+	public static class Snapshot {
+		private final Histogram drawTimes;
+		private final Histogram frameIntervals;
+		private final Histogram stepsPerSpin;
+		private final long framesOverBudget;
+		private final long rebuilds;
+		private final long adapterGetItemCalls;
+		private final long recycleHits;
+		private final long recycleMisses;
+
+		Snapshot(WheelMetrics metrics, long recycleHits, long recycleMisses) {
+			this.drawTimes = new Histogram(metrics.drawTimes);
+			this.frameIntervals = new Histogram(metrics.frameIntervals);
+			this.stepsPerSpin = new Histogram(metrics.stepsPerSpin);
+			this.framesOverBudget = metrics.framesOverBudget;
+			this.rebuilds = metrics.rebuilds;
+			this.adapterGetItemCalls = metrics.adapterGetItemCalls;
+			this.recycleHits = recycleHits;
+			this.recycleMisses = recycleMisses;
+		}
+
+		/**
+		 * Gets draw durations
+		 * @return the histogram in microseconds
+		 */
+		public Histogram getDrawTimes() {
+			return drawTimes;
+		}
+
+		/**
+		 * Gets intervals between animation frames
+		 * @return the histogram in microseconds
+		 */
+		public Histogram getFrameIntervals() {
+			return frameIntervals;
+		}
+
+		/**
+		 * Gets animation steps per spin
+		 * @return the histogram of step counts
+		 */
+		public Histogram getStepsPerSpin() {
+			return stepsPerSpin;
+		}
+
+		/**
+		 * Gets count of animation frames that missed a display frame
+		 * @return the count of frames over budget
+		 */
+		public long getFramesOverBudget() {
+			return framesOverBudget;
+		}
+
+		/**
+		 * Gets count of rebuilds that changed the items layout
+		 * @return the rebuild count
+		 */
+		public long getRebuilds() {
+			return rebuilds;
+		}
+
+		/**
+		 * Gets count of adapter item requests
+		 * @return the count of getItem() calls
+		 */
+		public long getAdapterGetItemCalls() {
+			return adapterGetItemCalls;
+		}
+
+		/**
+		 * Gets count of items served from the recycle
+		 * @return the recycle hit count
+		 */
+		public long getRecycleHits() {
+			return recycleHits;
+		}
+
+		/**
+		 * Gets count of items requested from the empty recycle
+		 * @return the recycle miss count
+		 */
+		public long getRecycleMisses() {
+			return recycleMisses;
+		}
+
+		@Override
+		public String toString() {
+			return "draw(us)=" + drawTimes
+					+ " frame(us)=" + frameIntervals
+					+ " steps=" + stepsPerSpin
+					+ " overBudget=" + framesOverBudget
+					+ " rebuilds=" + rebuilds
+					+ " getItem=" + adapterGetItemCalls
+					+ " recycle=" + recycleHits + "/" + recycleMisses;
+		}
+	}
+}
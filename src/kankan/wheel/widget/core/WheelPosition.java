@@ -0,0 +1,149 @@
+package kankan.wheel.widget.core;
+
+/**
+ * Wheel position with a 64-bit virtual item. The virtual item keeps counting
+ * across revolutions of a cyclic wheel, it is mapped to the adapter index
+ * with floor-mod arithmetic in constant time however long the spin is.
+ * The sub-item pixel offset is kept as it is scrolled by the wheel.
+ */
+public class WheelPosition {
+	// Wheel dimensions
+	private int itemCount;
+	private boolean cyclic;
+
+	// Position
+	private long virtualItem;
+	private int offset;
+
+	/**
+	 * Gets the floor modulus, the result has the sign of the divisor
+	 * @param index the item index, any value
+	 * @param count the count of items, positive
+	 * @return the index from 0 to count - 1
+	 */
+	public static int floorMod(long index, int count) {
+		int mod = (int) (index % count);
+		return mod < 0 ? mod + count : mod;
+	}
+
+	/**
+	 * Gets the floor modulus, the result has the sign of the divisor
+	 * @param index the item index, any value
+	 * @param count the count of items, positive
+	 * @return the index from 0 to count - 1
+	 */
+	public static int floorMod(int index, int count) {
+		int mod = index % count;
+		return mod < 0 ? mod + count : mod;
+	}
+
+	/**
+	 * Gets the floor quotient, rounded towards negative infinity
+	 * @param index the item index, any value
+	 * @param count the count of items, positive
+	 * @return the count of whole revolutions, negative before the first item
+	 */
+	public static long floorDiv(long index, int count) {
+		long div = index / count;
+		if (index % count < 0) {
+			div--;
+		}
+		return div;
+	}
+
+	/**
+	 * Sets wheel dimensions
+	 * @param itemCount the count of adapter items
+	 * @param cyclic true if the wheel is cyclic
+	 */
+	public void setup(int itemCount, boolean cyclic) {
+		this.itemCount = itemCount;
+		this.cyclic = cyclic;
+	}
+
+	/**
+	 * Sets position
+	 * @param virtualItem the virtual item
+	 * @param offset the pixel offset from the virtual item
+	 */
+	public void set(long virtualItem, int offset) {
+		this.virtualItem = virtualItem;
+		this.offset = offset;
+	}
+
+	/**
+	 * Moves position by items, the offset is kept
+	 * @param items the count of items, negative to move back
+	 */
+	public void moveBy(long items) {
+		virtualItem += items;
+	}
+
+	/**
+	 * Sets pixel offset from the virtual item
+	 * @param offset the offset
+	 */
+	public void setOffset(int offset) {
+		this.offset = offset;
+	}
+
+	/**
+	 * Gets virtual item, it is not limited to the adapter range
+	 * @return the virtual item
+	 */
+	public long getVirtualItem() {
+		return virtualItem;
+	}
+
+	/**
+	 * Gets pixel offset from the virtual item
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets adapter index of the virtual item
+	 * @return the index from 0 to count - 1, or 0 if there are no items
+	 */
+	public int getIndex() {
+		return itemCount > 0 ? toIndex(virtualItem) : 0;
+	}
+
+	/**
+	 * Gets count of whole revolutions from item 0
+	 * @return the revolutions, negative before item 0
+	 */
+	public long getRevolutions() {
+		return itemCount > 0 ? floorDiv(virtualItem, itemCount) : 0;
+	}
+
+	/**
+	 * Gets position in pixels from the top of item 0, as a wheel with the
+	 * current item at the scrolling offset would show it
+	 * @param itemHeight the item height
+	 * @return the pixel position
+	 */
+	public long getPixelPosition(int itemHeight) {
+		return virtualItem * itemHeight - offset;
+	}
+
+	/**
+	 * Maps any item index to the adapter index
+	 * @param index the item index
+	 * @return the index from 0 to count - 1
+	 */
+	public int toIndex(long index) {
+		return floorMod(index, itemCount);
+	}
+
+	/**
+	 * Checks whether the index is a real item, cyclic wheels accept any index
+	 * @param index the item index
+	 * @return true if the item is not an empty one
+	 */
+	public boolean isValidIndex(long index) {
+		return itemCount > 0 && (cyclic || index >= 0 && index < itemCount);
+	}
+}
@@ -0,0 +1,199 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Seeded spins replayed on a headless wheel with a 60 Hz manual clock.
+ * Every frame the laid out items must be one contiguous run holding the
+ * current item, every spin must stop on its item with no offset left.
+ */
+public class HeadlessWheelTest {
+	private static final int CASES = 200;
+	private static final long SEED = 25L;
+	/** Frames limit of one spin, far above any spin duration */
+	private static final int MAX_FRAMES = 100000;
+
+	private ManualFrameClock clock;
+	private HeadlessWheel wheel;
+	private final RangeSink sink = new RangeSink();
+
+	private int itemCount;
+	private int itemHeight;
+	private int viewHeight;
+	private boolean cyclic;
+
+	@Before
+	public void setUp() {
+		clock = new ManualFrameClock();
+		wheel = new HeadlessWheel(clock, ScrollPhysics.computeDeceleration(480, ScrollPhysics.DEF_SCROLL_FRICTION));
+	}
+
+	@Test
+	public void spinToStopsOnReturnedItem() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			setup(random);
+			int target = random.nextInt(3 * itemCount) - itemCount;
+			int revolutions = random.nextInt(20);
+			int start = wheel.getCurrentItem();
+
+			int stop = wheel.spinTo(target, revolutions, 2000 + random.nextInt(6000), null);
+			runUntilIdle();
+
+			int expected = cyclic ? WheelPosition.floorMod(target, itemCount)
+					: Math.max(0, Math.min(target, itemCount - 1));
+			assertEquals(expected, stop);
+			assertStopped(start, stop);
+		}
+	}
+
+	@Test
+	public void longScrollStopsOnItem() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			setup(random);
+			int items = 90 + random.nextInt(51);
+			if (random.nextBoolean()) {
+				items = -items;
+			}
+			int start = wheel.getCurrentItem();
+
+			wheel.scroll(items, 7000);
+			runUntilIdle();
+
+			int expected = cyclic ? WheelPosition.floorMod(start + items, itemCount)
+					: Math.max(0, Math.min(start + items, itemCount - 1));
+			assertStopped(start, expected);
+		}
+	}
+
+	@Test
+	public void flingStopsJustified() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			setup(random);
+			int start = wheel.getCurrentItem();
+
+			wheel.touchDown();
+			for (int move = random.nextInt(10); move > 0; move--) {
+				wheel.touchScroll(random.nextInt(2 * itemHeight + 1) - itemHeight);
+				clock.nextFrame();
+			}
+			int velocity = 500 + random.nextInt(20000);
+			wheel.fling(random.nextBoolean() ? velocity : -velocity);
+			runUntilIdle();
+
+			int stop = wheel.getCurrentItem();
+			assertTrue(stop >= 0 && stop < itemCount);
+			assertStopped(start, stop);
+		}
+	}
+
+	/**
+	 * Sets up a random wheel at a random item and draws it once
+	 */
+	private void setup(Random random) {
+		itemCount = 1 + random.nextInt(300);
+		itemHeight = 20 + random.nextInt(200);
+		viewHeight = itemHeight * (1 + 2 * random.nextInt(4));
+		cyclic = random.nextBoolean();
+
+		// the old items are removed from the sink before it is reset
+		wheel.setItemSink(null);
+		sink.reset();
+		wheel.setup(itemCount, itemHeight, viewHeight, cyclic);
+		wheel.setItemSink(sink);
+		wheel.setCurrentItem(random.nextInt(itemCount));
+		runUntilIdle();
+		sink.itemsPassed = 0;
+	}
+
+	private void runUntilIdle() {
+		clock.runUntilIdle(MAX_FRAMES);
+		assertFalse("spin did not stop", wheel.isBusy());
+	}
+
+	/**
+	 * Checks the wheel stopped on the item with no offset, the item changes added up to it
+	 */
+	private void assertStopped(int start, int stop) {
+		assertEquals("current item", stop, wheel.getCurrentItem());
+		assertEquals("offset", 0, wheel.getScrollingOffset());
+		assertFalse(wheel.isScrolling());
+		assertEquals("position", stop, wheel.getPosition().getIndex());
+		if (cyclic) {
+			assertEquals("items passed", stop, WheelPosition.floorMod((long) start + sink.itemsPassed, itemCount));
+		} else {
+			assertEquals("items passed", stop, start + sink.itemsPassed);
+		}
+		assertTrue(sink.frames > 0);
+	}
+
+	/**
+	 * Follows laid out items and checks them on every frame
+	 */
+	private class RangeSink implements HeadlessWheel.ItemSink {
+		// laid out items, not normalized
+		final TreeSet<Integer> items = new TreeSet<Integer>();
+		long itemsPassed;
+		int frames;
+
+		void reset() {
+			items.clear();
+			itemsPassed = 0;
+			frames = 0;
+		}
+
+		public void onItemAdded(int index, int adapterIndex, boolean first) {
+			if (!items.isEmpty()) {
+				assertEquals(first ? items.first() - 1 : items.last() + 1, index);
+			}
+			items.add(index);
+			if (cyclic) {
+				assertEquals(WheelPosition.floorMod(index, itemCount), adapterIndex);
+			} else {
+				assertEquals(index >= 0 && index < itemCount ? index : -1, adapterIndex);
+			}
+		}
+
+		public void onItemRemoved(int index) {
+			assertTrue("removed " + index + " not laid out", items.remove(index));
+		}
+
+		public void onItemChanged(int oldItem, int newItem, int itemsPassed) {
+			this.itemsPassed += itemsPassed;
+		}
+
+		public void onFrame(HeadlessWheel wheel, long frameTimeNanos) {
+			frames++;
+			int count = wheel.getLayoutItemsCount();
+			assertEquals(items.size(), count);
+			if (count == 0) {
+				return;
+			}
+			int first = items.first();
+			int last = items.last();
+			assertEquals(first, wheel.getFirstItem());
+			assertEquals("items are not contiguous", count, last - first + 1);
+
+			int current = wheel.getCurrentItem();
+			assertTrue(current >= 0 && current < itemCount);
+			// a scroll leaves less than an item of offset, over the ends of
+			// non-cyclic wheels the offset may grow up to the view height
+			if (Math.abs(wheel.getScrollingOffset()) < itemHeight) {
+				assertTrue("current " + current + " out of " + first + ".." + last, first <= current && current <= last);
+				assertTrue((long) count * itemHeight >= viewHeight);
+			} else {
+				assertFalse(cyclic);
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Wanted pages around the current item for page sizes smaller and larger
+ * than the visible items: every page holding an item that may be laid out
+ * is wanted, and the window never holds more pages than the adapter keeps.
+ */
+public class PageWindowTest {
+	private static final int[] PAGE_SIZES = { 1, 2, 3, 5, 20 };
+	private static final int[] VISIBLE_ITEMS = { 1, 3, 5, 7, 11 };
+
+	@Test
+	public void pagesOfLaidOutItemsAreWanted() {
+		for (int pageSize : PAGE_SIZES) {
+			for (int visibleItems : VISIBLE_ITEMS) {
+				for (int itemCount = 1; itemCount <= 60; itemCount += 7) {
+					PageWindow window = new PageWindow(pageSize);
+					window.setItemCount(itemCount);
+					int radius = visibleItems / 2 + 1;
+					for (int current = -itemCount; current < 2 * itemCount; current++) {
+						window.setCurrentItem(current, visibleItems);
+						for (int i = current - radius; i <= current + radius; i++) {
+							int page = window.getPage(i);
+							assertTrue("page size " + pageSize + " visible " + visibleItems + " items " + itemCount
+									+ " current " + current + " item " + i, window.isWanted(page));
+						}
+						assertTrue(window.getWindowPages() <= PageWindow.getMaxWindowPages(visibleItems, pageSize));
+						assertTrue(window.getWindowPages() <= window.getPageCount());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void prefetchedPagesAreWanted() {
+		PageWindow window = new PageWindow(2);
+		window.setItemCount(100);
+		window.setCurrentItem(50, 5);
+
+		// items 47..53 are on pages 23..26, one more page on each side
+		assertEquals(22, window.getFirstPage());
+		assertEquals(6, window.getWindowPages());
+		for (int page = 22; page <= 27; page++) {
+			assertTrue(window.isWanted(page));
+		}
+		assertFalse(window.isWanted(21));
+		assertFalse(window.isWanted(28));
+		assertFalse(window.isWanted(0));
+	}
+
+	@Test
+	public void windowWrapsAround() {
+		PageWindow window = new PageWindow(1);
+		window.setItemCount(30);
+		window.setCurrentItem(0, 5);
+
+		// items 27..29 and 0..3, one more page on each side
+		assertEquals(26, window.getFirstPage());
+		assertEquals(9, window.getWindowPages());
+		for (int page = 26; page < 30; page++) {
+			assertTrue(window.isWanted(page));
+		}
+		for (int page = 0; page <= 4; page++) {
+			assertTrue(window.isWanted(page));
+		}
+		assertFalse(window.isWanted(5));
+		assertFalse(window.isWanted(25));
+	}
+
+	@Test
+	public void allPagesWantedUntilCurrentItemIsSet() {
+		PageWindow window = new PageWindow(3);
+		window.setItemCount(100);
+		assertEquals(0, window.getWindowPages());
+		for (int page = 0; page < window.getPageCount(); page++) {
+			assertTrue(window.isWanted(page));
+		}
+
+		window.setCurrentItem(50, 5);
+		assertFalse(window.isWanted(0));
+
+		// a new count resets the window
+		window.setItemCount(200);
+		assertTrue(window.isWanted(0));
+	}
+
+	@Test
+	public void smallCountWantsAllPages() {
+		PageWindow window = new PageWindow(1);
+		window.setItemCount(6);
+		window.setCurrentItem(2, 5);
+		assertEquals(6, window.getWindowPages());
+		for (int page = 0; page < 6; page++) {
+			assertTrue(window.isWanted(page));
+		}
+	}
+
+	@Test
+	public void maxWindowPagesCoversPageSizesBelowVisibleItems() {
+		// 7 items may be laid out with 5 visible, the last page may be partly filled
+		assertEquals(9, PageWindow.getMaxWindowPages(5, 1));
+		assertEquals(7, PageWindow.getMaxWindowPages(5, 2));
+		assertEquals(5, PageWindow.getMaxWindowPages(5, 20));
+		assertTrue(PageWindow.getMaxWindowPages(0, 0) >= 3);
+	}
+}
@@ -0,0 +1,144 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * The scroll engine stepped with different frame time deltas on a simple
+ * wheel: every scroll distance is added to the wheel position and justify
+ * snaps back by the offset from the nearest item, as the wheels do.
+ * Trajectories are closed form, so the landing item must not depend on the step.
+ */
+public class ScrollEngineTest {
+	private static final int ITEM_HEIGHT = 100;
+	private static final long START_TIME = 1000L;
+	private static final int[] STEPS = { 1, 5, 16, 17, 33, 50, 100, 250 };
+	private static final float DECELERATION = ScrollPhysics.computeDeceleration(480, ScrollPhysics.DEF_SCROLL_FRICTION);
+
+	@Test
+	public void scrollLandsOnItemForAnyStep() {
+		for (int step : STEPS) {
+			for (int distance = -2550; distance <= 2550; distance += 37) {
+				SimpleWheel wheel = new SimpleWheel();
+				wheel.engine.scroll(distance, 700);
+				wheel.run(step);
+
+				// the nearest item, unless the wheel stops within the minimum delta of it
+				int nearest = Math.round(-distance / (float) ITEM_HEIGHT) * ITEM_HEIGHT;
+				int expected = Math.abs(-distance - nearest) <= ScrollEngine.MIN_DELTA_FOR_SCROLLING ? -distance : nearest;
+				assertEquals("step " + step + " distance " + distance, expected, wheel.position);
+				assertEquals(1, wheel.started);
+				assertEquals(1, wheel.finished);
+			}
+		}
+	}
+
+	@Test
+	public void flingLandsOnSameItemForAnyStep() {
+		for (int velocity = -9000; velocity <= 9000; velocity += 450) {
+			int landing = 0;
+			for (int i = 0; i < STEPS.length; i++) {
+				SimpleWheel wheel = new SimpleWheel();
+				wheel.engine.touchScroll(-30);
+				wheel.engine.fling(velocity);
+				wheel.run(STEPS[i]);
+
+				// offsets up to the minimum delta are left as they are
+				int offset = wheel.position - Math.round(wheel.position / (float) ITEM_HEIGHT) * ITEM_HEIGHT;
+				assertTrue("not justified", Math.abs(offset) <= ScrollEngine.MIN_DELTA_FOR_SCROLLING);
+				if (i == 0) {
+					landing = wheel.position;
+				} else {
+					assertEquals("velocity " + velocity + " step " + STEPS[i], landing, wheel.position);
+				}
+				assertEquals(1, wheel.finished);
+			}
+			// a fling goes the way of its velocity, negative positions increase the current item
+			if (Math.abs(velocity) > 1000) {
+				assertTrue(velocity > 0 ? landing < 0 : landing > 0);
+			}
+		}
+	}
+
+	@Test
+	public void offsetsUpToMinDeltaAreNotJustified() {
+		int minDelta = ScrollEngine.MIN_DELTA_FOR_SCROLLING;
+		for (int step : STEPS) {
+			for (int rest = -minDelta - 3; rest <= minDelta + 3; rest++) {
+				SimpleWheel wheel = new SimpleWheel();
+				wheel.engine.scroll(3 * ITEM_HEIGHT + rest, 500);
+				wheel.run(step);
+
+				int expected = -3 * ITEM_HEIGHT;
+				if (Math.abs(rest) <= minDelta) {
+					// left where it stopped, no justify animation
+					expected -= rest;
+					assertEquals(0, wheel.justifyScrolls);
+				} else {
+					assertEquals(1, wheel.justifyScrolls);
+				}
+				assertEquals("step " + step + " rest " + rest, expected, wheel.position);
+				assertEquals(1, wheel.finished);
+			}
+		}
+	}
+
+	@Test
+	public void stepAfterFinishDoesNothing() {
+		SimpleWheel wheel = new SimpleWheel();
+		wheel.engine.scroll(250, 300);
+		wheel.run(16);
+		int position = wheel.position;
+
+		assertFalse(wheel.engine.isAnimating());
+		assertFalse(wheel.engine.step(START_TIME + 100000));
+		assertEquals(position, wheel.position);
+		assertEquals(1, wheel.finished);
+	}
+
+	/**
+	 * Wheel reduced to its position
+	 */
+	private static class SimpleWheel implements ScrollEngine.Listener {
+		final ScrollEngine engine = new ScrollEngine(this, DECELERATION);
+		int position;
+		int started;
+		int finished;
+		int justifyScrolls;
+
+		/**
+		 * Steps the engine until it stops
+		 */
+		void run(int step) {
+			long now = START_TIME;
+			int steps = 0;
+			while (engine.step(now)) {
+				now += step;
+				assertTrue("engine does not stop", ++steps < 1000000);
+			}
+		}
+
+		public void onScroll(int distance) {
+			position += distance;
+		}
+
+		public void onStarted() {
+			started++;
+		}
+
+		public void onFinished() {
+			finished++;
+		}
+
+		public void onJustify() {
+			int offset = position - Math.round(position / (float) ITEM_HEIGHT) * ITEM_HEIGHT;
+			engine.snapBack(offset);
+			if (Math.abs(offset) > ScrollEngine.MIN_DELTA_FOR_SCROLLING) {
+				justifyScrolls++;
+			}
+		}
+	}
+}
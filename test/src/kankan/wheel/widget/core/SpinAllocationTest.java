@@ -0,0 +1,118 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Spins replayed on a headless wheel must not allocate once warmed up:
+ * every frame steps the scroll engine, applies the scroll and rebuilds
+ * the items range through {@link WheelItems}, as WheelView does.
+ * Allocations are counted by the JVM for the test thread.
+ */
+public class SpinAllocationTest {
+	private static final int ITEM_HEIGHT = 100;
+	private static final int WARM_UP_SPINS = 200;
+	/** Frames limit of one spin, far above any spin duration */
+	private static final int MAX_FRAMES = 100000;
+
+	private com.sun.management.ThreadMXBean threads;
+	private long threadId;
+
+	private ManualFrameClock clock;
+	private HeadlessWheel wheel;
+
+	// Counts what the sink gets, without allocating
+	private long items;
+	private int frames;
+	private final HeadlessWheel.ItemSink sink = new HeadlessWheel.ItemSink() {
+		public void onItemAdded(int index, int adapterIndex, boolean first) {
+			items += adapterIndex;
+		}
+
+		public void onItemRemoved(int index) {
+			items--;
+		}
+
+		public void onItemChanged(int oldItem, int newItem, int itemsPassed) {
+			items += itemsPassed;
+		}
+
+		public void onFrame(HeadlessWheel wheel, long frameTimeNanos) {
+			frames++;
+		}
+	};
+
+	@Before
+	public void setUp() {
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assertTrue("allocation counting is not supported", threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		threadId = Thread.currentThread().getId();
+
+		clock = new ManualFrameClock();
+		wheel = new HeadlessWheel(clock, ScrollPhysics.computeDeceleration(480, ScrollPhysics.DEF_SCROLL_FRICTION));
+	}
+
+	@Test
+	public void cyclicSpinAllocatesNothing() {
+		assertSpinsAllocateNothing(64, true);
+	}
+
+	@Test
+	public void nonCyclicSpinAllocatesNothing() {
+		assertSpinsAllocateNothing(64, false);
+	}
+
+	/**
+	 * Warms up spins, then replays the same kind of spins and checks
+	 * the thread allocated no bytes meanwhile
+	 */
+	private void assertSpinsAllocateNothing(int itemCount, boolean cyclic) {
+		wheel.setup(itemCount, ITEM_HEIGHT, 5 * ITEM_HEIGHT, cyclic);
+		wheel.setItemSink(sink);
+		clock.runUntilIdle(MAX_FRAMES);
+
+		for (int i = 0; i < WARM_UP_SPINS; i++) {
+			spin(i, itemCount);
+		}
+		// the first reads may allocate
+		allocatedBytes();
+		allocatedBytes();
+
+		int framesBefore = frames;
+		long before = allocatedBytes();
+		for (int i = 0; i < 3; i++) {
+			spin(WARM_UP_SPINS + i, itemCount);
+		}
+		long after = allocatedBytes();
+
+		assertTrue(frames - framesBefore > 100);
+		assertEquals("bytes allocated by spins", 0L, after - before);
+	}
+
+	/**
+	 * Spins to an item, flings and scrolls back, each one to the end
+	 */
+	private void spin(int n, int itemCount) {
+		wheel.spinTo((n * 7) % itemCount, 3, 2000, null);
+		clock.runUntilIdle(MAX_FRAMES);
+
+		wheel.touchDown();
+		wheel.touchScroll(n % 2 == 0 ? 40 : -40);
+		clock.nextFrame();
+		wheel.fling(n % 2 == 0 ? 6000 : -6000);
+		clock.runUntilIdle(MAX_FRAMES);
+
+		wheel.scroll(n % 2 == 0 ? -11 : 11, 1000);
+		clock.runUntilIdle(MAX_FRAMES);
+	}
+
+	private long allocatedBytes() {
+		return threads.getThreadAllocatedBytes(threadId);
+	}
+}
@@ -0,0 +1,159 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Properties of the wheel geometry over random huge positive and negative spins,
+ * scrolled frame by frame as WheelItems.applyScroll scrolls them.
+ */
+public class WheelGeometryTest {
+	private static final int CASES = 2000;
+	private static final long SEED = 17L;
+
+	private final WheelGeometry geometry = new WheelGeometry();
+	private final WheelPosition position = new WheelPosition();
+
+	@Test
+	public void cyclicSpinsKeepPixelPosition() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			int itemCount = 1 + random.nextInt(200);
+			int itemHeight = 1 + random.nextInt(200);
+			int viewHeight = itemHeight * (1 + random.nextInt(9));
+			setup(itemCount, itemHeight, viewHeight, true);
+
+			int item = random.nextInt(itemCount);
+			int offset = 0;
+			position.set(item, 0);
+			long pixels = position.getPixelPosition(itemHeight);
+
+			// one long spin in either direction, up to the view height per frame
+			int direction = random.nextBoolean() ? 1 : -1;
+			int frames = 1 + random.nextInt(5000);
+			for (int frame = 0; frame < frames; frame++) {
+				int delta = direction * random.nextInt(viewHeight + 1);
+				geometry.scroll(item, offset + delta);
+				pixels -= delta;
+
+				assertEquals(WheelPosition.floorMod((long) item + geometry.getItemsPassed(), itemCount),
+						geometry.getItem());
+				item = geometry.getItem();
+				offset = geometry.getOffset();
+				position.moveBy(geometry.getItemsPassed());
+				position.setOffset(offset);
+
+				assertTrue("offset " + offset, Math.abs(offset) <= itemHeight / 2 + 1);
+				assertEquals(item, position.getIndex());
+				assertEquals(pixels, position.getPixelPosition(itemHeight));
+			}
+		}
+	}
+
+	@Test
+	public void nonCyclicSpinsStayInRange() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			int itemCount = 1 + random.nextInt(50);
+			int itemHeight = 1 + random.nextInt(200);
+			int viewHeight = itemHeight * (1 + random.nextInt(9));
+			setup(itemCount, itemHeight, viewHeight, false);
+
+			int item = random.nextInt(itemCount);
+			int offset = 0;
+			int direction = random.nextBoolean() ? 1 : -1;
+			for (int frame = 0; frame < 1000; frame++) {
+				int delta = direction * random.nextInt(viewHeight + 1);
+				geometry.scroll(item, geometry.clampOffset(offset + delta));
+				assertEquals(item + geometry.getItemsPassed(), geometry.getItem());
+				item = geometry.getItem();
+				offset = geometry.clampOffset(geometry.getOffset());
+				assertTrue(item >= 0 && item < itemCount);
+				assertTrue(Math.abs(offset) <= viewHeight);
+			}
+			// a long spin reaches the end it goes to
+			assertEquals(direction < 0 ? itemCount - 1 : 0, item);
+		}
+	}
+
+	@Test
+	public void spinScrollStopsAtTarget() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES * 50; i++) {
+			int itemCount = 1 + random.nextInt(1000);
+			int currentItem = random.nextInt(itemCount);
+			int target = random.nextInt();
+			int revolutions = random.nextInt(Integer.MAX_VALUE / itemCount / 2) - 10;
+
+			setup(itemCount, 100, 500, true);
+			int items = geometry.spinScroll(currentItem, target, revolutions);
+			int turns = Math.max(revolutions, 0);
+			assertTrue(items >= (long) turns * itemCount && items < (long) (turns + 1) * itemCount);
+			assertEquals(Math.floorMod(target, itemCount), Math.floorMod(currentItem + (long) items, itemCount));
+
+			setup(itemCount, 100, 500, false);
+			items = geometry.spinScroll(currentItem, target, revolutions);
+			assertEquals(Math.max(0, Math.min(target, itemCount - 1)), currentItem + items);
+		}
+	}
+
+	@Test
+	public void shortestScrollGoesTheShorterWay() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES * 50; i++) {
+			int itemCount = 1 + random.nextInt(1000);
+			int from = random.nextInt(itemCount);
+			int to = random.nextInt(itemCount);
+
+			setup(itemCount, 100, 500, true);
+			int items = geometry.shortestScroll(from, to);
+			assertEquals(to, Math.floorMod(from + items, itemCount));
+			assertTrue(Math.abs(items) <= (itemCount + 1) / 2);
+
+			setup(itemCount, 100, 500, false);
+			assertEquals(to - from, geometry.shortestScroll(from, to));
+		}
+	}
+
+	/**
+	 * Offsets are less than an item, as scrolling leaves them; from one item up
+	 * the range count follows the upstream asin formula and is not checked here.
+	 */
+	@Test
+	public void rangeCoversView() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES * 50; i++) {
+			int itemHeight = 1 + random.nextInt(200);
+			int viewHeight = 1 + random.nextInt(2000);
+			int currentItem = random.nextInt() >> 2;
+			int offset = random.nextInt(2 * itemHeight - 1) - (itemHeight - 1);
+			setup(10, itemHeight, viewHeight, true);
+			geometry.computeRange(currentItem, offset);
+
+			int first = geometry.getRangeFirst();
+			int last = first + geometry.getRangeCount() - 1;
+			assertTrue(first <= currentItem && currentItem <= last);
+			assertTrue((long) geometry.getRangeCount() * itemHeight >= viewHeight);
+		}
+	}
+
+	@Test
+	public void clampOffsetLimitsToViewHeight() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES * 50; i++) {
+			int viewHeight = random.nextInt(5000);
+			int offset = random.nextInt();
+			setup(10, 100, viewHeight, random.nextBoolean());
+			assertEquals(Math.max(-viewHeight, Math.min(offset, viewHeight)), geometry.clampOffset(offset));
+		}
+	}
+
+	private void setup(int itemCount, int itemHeight, int viewHeight, boolean cyclic) {
+		geometry.setup(itemCount, itemHeight, viewHeight, cyclic);
+		position.setup(itemCount, cyclic);
+	}
+}
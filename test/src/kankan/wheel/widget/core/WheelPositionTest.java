@@ -0,0 +1,118 @@
+package kankan.wheel.widget.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Properties of the virtual position over random huge positive and negative spins.
+ * Each property is checked on many seeded random cases, Math.floorMod is the reference.
+ */
+public class WheelPositionTest {
+	private static final int CASES = 100000;
+	private static final long SEED = 18L;
+
+	@Test
+	public void floorModMatchesMathForAnyLong() {
+		Random random = new Random(SEED);
+		long[] edges = { Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, 1, Long.MAX_VALUE - 1, Long.MAX_VALUE };
+		for (int i = 0; i < CASES; i++) {
+			long index = i < edges.length ? edges[i] : random.nextLong();
+			int count = 1 + random.nextInt(i % 2 == 0 ? 16 : Integer.MAX_VALUE);
+			assertEquals("floorMod(" + index + ", " + count + ")",
+					Math.floorMod(index, count), WheelPosition.floorMod(index, count));
+			assertEquals("floorDiv(" + index + ", " + count + ")",
+					Math.floorDiv(index, count), WheelPosition.floorDiv(index, count));
+		}
+	}
+
+	@Test
+	public void floorModMatchesMathForAnyInt() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < CASES; i++) {
+			int index = random.nextInt();
+			int count = 1 + random.nextInt(1000);
+			assertEquals(Math.floorMod(index, count), WheelPosition.floorMod(index, count));
+		}
+	}
+
+	@Test
+	public void hugeSpinsKeepIndexAndRevolutions() {
+		Random random = new Random(SEED);
+		WheelPosition position = new WheelPosition();
+		for (int i = 0; i < CASES / 100; i++) {
+			int count = 1 + random.nextInt(1000);
+			position.setup(count, true);
+			long start = random.nextLong() >> 8;
+			position.set(start, 0);
+
+			long expected = start;
+			for (int spin = 0; spin < 100; spin++) {
+				// spins up to about 2^40 items either way
+				long items = (random.nextLong() >> 24);
+				position.moveBy(items);
+				expected += items;
+
+				assertEquals(expected, position.getVirtualItem());
+				assertEquals(Math.floorMod(expected, count), position.getIndex());
+				assertEquals(Math.floorDiv(expected, count), position.getRevolutions());
+				assertEquals(expected, position.getRevolutions() * count + position.getIndex());
+			}
+		}
+	}
+
+	@Test
+	public void spinAndReverseReturnsToStart() {
+		Random random = new Random(SEED);
+		WheelPosition position = new WheelPosition();
+		for (int i = 0; i < CASES; i++) {
+			int count = 1 + random.nextInt(100);
+			position.setup(count, true);
+			int startIndex = random.nextInt(count);
+			position.set(startIndex, 0);
+			long items = random.nextLong() >> 2;
+			position.moveBy(items);
+			position.moveBy(-items);
+			assertEquals(startIndex, position.getIndex());
+			assertEquals(0, position.getRevolutions());
+		}
+	}
+
+	@Test
+	public void pixelPositionFollowsItemsAndOffset() {
+		Random random = new Random(SEED);
+		WheelPosition position = new WheelPosition();
+		for (int i = 0; i < CASES; i++) {
+			int itemHeight = 1 + random.nextInt(500);
+			long item = random.nextLong() >> 20;
+			int offset = random.nextInt(2 * itemHeight + 1) - itemHeight;
+			position.setup(1 + random.nextInt(100), true);
+			position.set(item, offset);
+			assertEquals(item * itemHeight - offset, position.getPixelPosition(itemHeight));
+		}
+	}
+
+	@Test
+	public void validIndicesOfNonCyclicWheel() {
+		Random random = new Random(SEED);
+		WheelPosition position = new WheelPosition();
+		for (int i = 0; i < CASES; i++) {
+			int count = random.nextInt(50);
+			long index = random.nextInt(200) - 100;
+			position.setup(count, false);
+			assertEquals(index >= 0 && index < count, position.isValidIndex(index));
+			position.setup(count, true);
+			assertEquals(count > 0, position.isValidIndex(index));
+		}
+		position.setup(0, true);
+		assertFalse(position.isValidIndex(0));
+		assertEquals(0, position.getIndex());
+		assertEquals(0, position.getRevolutions());
+		position.setup(3, true);
+		assertTrue(position.isValidIndex(Long.MIN_VALUE));
+	}
+}